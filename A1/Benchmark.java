@@ -0,0 +1,212 @@
+// Tayla Orsmond u21467456
+// Benchmark program: solves every PI with N seeds (in parallel across the cores) using ILS and Tabu Search
+// Reports the mean / min / max no. of bins, the success rate against the optima, the time-to-target distribution
+// and bootstrap confidence intervals per dataset (to tell a real improvement from seed noise)
+// Usage: java Benchmark [no. of seeds] [base seed]
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Benchmark {
+    // Variables ====================
+    private static final String[] algorithms = {"ILS", "Tabu"};
+    private static final int resamples = 1000; // The no. of bootstrap resamples
+    private static final double confidence = 0.95; // The confidence level of the intervals
+
+    public static void main(String[] args) {
+        int numSeeds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long baseSeed = args.length > 1 ? Long.parseLong(args[1]) : 2109626023L;
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.println("========== COS 314 - Assignment 1 - Benchmark (" + numSeeds + " seeds, " + threads + " threads) ==========");
+
+        Loader loader = new Loader();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        // Results per "dataset / algorithm" (in submission order)
+        LinkedHashMap<String, ArrayList<Future<Sample>>> runs = new LinkedHashMap<String, ArrayList<Future<Sample>>>();
+        try {
+            HashMap<String, Integer> optima = loader.loadOptima("Optima.txt");
+            for (String dataset : Main.datasets) {
+                for (String pi : loader.loadDataset(dataset)) {
+                    ArrayList<String> data = loader.readFile(dataset + "/" + pi);
+                    int optimal = optima.get(pi.substring(0, pi.length() - 4));
+                    for (String algorithm : algorithms) {
+                        ArrayList<Future<Sample>> samples = runs.computeIfAbsent(dataset + " / " + algorithm, k -> new ArrayList<Future<Sample>>());
+                        for (int s = 0; s < numSeeds; s++) {
+                            long seed = baseSeed + s;
+                            samples.add(pool.submit(() -> run(algorithm, dataset, pi, data, optimal, seed)));
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("[Benchmark] Error loading datasets: " + e);
+            e.printStackTrace();
+        }
+
+        // Collect the samples & summarize them per dataset / algorithm
+        String report = "Benchmark of ILS and Tabu Search: " + numSeeds + " seeds per PI (base seed " + baseSeed + ")";
+        try {
+            FileWriter records = new FileWriter("Solutions/benchmark.csv");
+            records.write(RunRecord.HEADER + "\n");
+            for (String key : runs.keySet()) {
+                ArrayList<Sample> samples = new ArrayList<Sample>();
+                for (Future<Sample> future : runs.get(key)) {
+                    Sample sample = future.get();
+                    samples.add(sample);
+                    records.write(sample.record.toCSV() + "\n");
+                }
+                report += "\n" + summarize(key, samples, new Random(baseSeed));
+            }
+            records.close();
+        } catch (Exception e) {
+            System.out.println("[Benchmark] Error running benchmark: " + e);
+            e.printStackTrace();
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println(report);
+        try {
+            FileWriter writer = new FileWriter("Solutions/Benchmark_Report.txt");
+            writer.write(report);
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("[Benchmark] Error writing report: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * One solve of a PI with one seed
+     */
+    private static class Sample {
+        private final RunRecord record; // The record of the run
+        private final long timeToBest; // The time taken to find the best solution (ms)
+
+        private Sample(RunRecord record, long timeToBest) {
+            this.record = record;
+            this.timeToBest = timeToBest;
+        }
+
+        // No. of bins more than the optimal solution
+        private int excess() {
+            return Math.max(0, this.record.getResult() - this.record.getOptimal());
+        }
+    }
+
+    /**
+     * Solve a PI with one seed (each run uses its own solver, so runs can execute in parallel)
+     * @param algorithm The algorithm to use (ILS or Tabu)
+     * @param dataset The dataset the PI belongs to
+     * @param pi The name of the PI (file)
+     * @param data The lines of the PI (copied, since setData changes the list)
+     * @param optimal The optimal solution
+     * @param seed The seed
+     * @return The sample (Sample)
+     */
+    private static Sample run(String algorithm, String dataset, String pi, ArrayList<String> data, int optimal, long seed) {
+        Solver solver = algorithm.equals("ILS") ? new ILS() : new TabuSearch();
+        solver.setDataset(dataset);
+        solver.setPI(pi);
+        solver.setData(new ArrayList<String>(data));
+        solver.setOptimal(optimal);
+        solver.setSeed(seed);
+        solver.solve();
+        return new Sample(solver.getRecord(), solver.getTimeToBest());
+    }
+
+    /**
+     * Summarize the samples of one algorithm on one dataset
+     * @param key The "dataset / algorithm" name
+     * @param samples The samples
+     * @param rng The random number generator for the bootstrap
+     * @return The summary (String)
+     */
+    private static String summarize(String key, ArrayList<Sample> samples, Random rng) {
+        int n = samples.size();
+        double[] excess = new double[n];
+        double[] success = new double[n];
+        long[] times = new long[n];
+        ArrayList<Long> toTarget = new ArrayList<Long>();
+        int min = Integer.MAX_VALUE;
+        int max = 0;
+        for (int i = 0; i < n; i++) {
+            Sample sample = samples.get(i);
+            excess[i] = sample.excess();
+            success[i] = sample.excess() == 0 ? 1.0 : 0.0;
+            times[i] = sample.record.getTime();
+            min = Math.min(min, sample.excess());
+            max = Math.max(max, sample.excess());
+            if (sample.excess() == 0) {
+                toTarget.add(sample.timeToBest);
+            }
+        }
+        double[] excessCI = bootstrap(excess, rng);
+        double[] successCI = bootstrap(success, rng);
+        long[] ttt = new long[toTarget.size()];
+        for (int i = 0; i < ttt.length; i++) {
+            ttt[i] = toTarget.get(i);
+        }
+        Arrays.sort(ttt);
+        Arrays.sort(times);
+
+        String res = key + " [Runs: " + n + "]";
+        res += "\n\tExcess bins: mean " + round(mean(excess)) + " (" + (int) (confidence * 100) + "% CI " + round(excessCI[0]) + " - " + round(excessCI[1]) + ") min " + min + " max " + max;
+        res += "\n\tSuccess rate: " + round(mean(success) * 100) + "% (" + (int) (confidence * 100) + "% CI " + round(successCI[0] * 100) + "% - " + round(successCI[1] * 100) + "%)";
+        res += "\n\tTime: P50 " + percentile(times, 50) + "ms P95 " + percentile(times, 95) + "ms Max " + percentile(times, 100) + "ms";
+        if (ttt.length > 0) {
+            res += "\n\tTime to target (" + ttt.length + " runs): P10 " + percentile(ttt, 10) + "ms P50 " + percentile(ttt, 50) + "ms P90 " + percentile(ttt, 90) + "ms Max " + percentile(ttt, 100) + "ms";
+        } else {
+            res += "\n\tTime to target: never reached";
+        }
+        return res;
+    }
+
+    /**
+     * Percentile bootstrap confidence interval of the mean
+     * @param values The sample values
+     * @param rng The random number generator
+     * @return The lower & upper bound of the interval (double[2])
+     */
+    private static double[] bootstrap(double[] values, Random rng) {
+        double[] means = new double[resamples];
+        for (int b = 0; b < resamples; b++) {
+            double sum = 0;
+            for (int i = 0; i < values.length; i++) {
+                sum += values[rng.nextInt(values.length)];
+            }
+            means[b] = sum / values.length;
+        }
+        Arrays.sort(means);
+        double alpha = (1 - confidence) / 2;
+        return new double[] {means[(int) (alpha * (resamples - 1))], means[(int) Math.ceil((1 - alpha) * (resamples - 1))]};
+    }
+
+    // Mean of the values
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double v : values) {
+            sum += v;
+        }
+        return sum / values.length;
+    }
+
+    // Nearest-rank percentile (values must be sorted)
+    private static long percentile(long[] values, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * values.length);
+        return values[Math.max(rank, 1) - 1];
+    }
+
+    // Round to 2 decimal places
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
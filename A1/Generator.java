@@ -0,0 +1,89 @@
+// Tayla Orsmond u21467456
+// Generator class creates synthetic (seeded) bin packing PIs in the same format as the datasets
+// (no. of items, capacity, then one item per line) so that the solvers can be tested at a much larger scale
+// Usage: java Generator <no. of items> <distribution> <seed> <path> [capacity]
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+public class Generator {
+    // The size distributions that can be generated
+    public static final String[] distributions = {"uniform", "small", "large", "normal", "triplet"};
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: java Generator <no. of items> <distribution> <seed> <path> [capacity]");
+            System.out.println("Distributions: " + String.join(", ", distributions));
+            return;
+        }
+        try {
+            int capacity = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+            write(args[3], Integer.parseInt(args[0]), capacity, args[1], Long.parseLong(args[2]));
+        } catch (IOException e) {
+            System.out.println("[Generator] Error writing PI " + args[3] + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Write a synthetic PI to a file
+     * @details Items are streamed to the file, so PIs with millions of items do not have to fit in memory as strings
+     * @param path The path to the file
+     * @param numItems The no. of items
+     * @param capacity The capacity of the bins
+     * @param distribution The size distribution of the items (see distributions)
+     * @param seed The seed of the random number generator
+     * @return The lower bound on the no. of bins (sum of the items / capacity, rounded up)
+     * @throws IOException
+     */
+    public static int write(String path, int numItems, int capacity, String distribution, long seed) throws IOException {
+        Random rng = new Random(seed);
+        BufferedWriter writer = new BufferedWriter(new FileWriter(path), 1 << 16);
+        writer.write(numItems + "\n" + capacity + "\n");
+        long total = 0;
+        int[] triplet = new int[3];
+        for (int i = 0; i < numItems; i++) {
+            int item;
+            if (distribution.equals("triplet")) {
+                // Triplets of items that fill a bin exactly (like Falkenauer_T), all between 1/4 and 1/2 of the capacity
+                if (i % 3 == 0) {
+                    triplet[0] = capacity / 4 + rng.nextInt(Math.max(1, capacity / 4));
+                    triplet[1] = capacity / 4 + rng.nextInt(Math.max(1, (capacity - triplet[0]) / 2 - capacity / 4));
+                    triplet[2] = capacity - triplet[0] - triplet[1];
+                }
+                item = triplet[i % 3];
+            } else {
+                item = item(rng, capacity, distribution);
+            }
+            writer.write(item + "\n");
+            total += item;
+        }
+        writer.close();
+        return (int) ((total + capacity - 1) / capacity);
+    }
+
+    /**
+     * Draw the size of one item
+     * @param rng The random number generator
+     * @param capacity The capacity of the bins
+     * @param distribution The size distribution
+     * @return The size of the item (between 1 and the capacity)
+     */
+    private static int item(Random rng, int capacity, String distribution) {
+        switch (distribution) {
+            case "uniform": // 1/5 - 2/3 of the capacity (like Falkenauer_U)
+                return capacity / 5 + rng.nextInt(Math.max(1, 2 * capacity / 3 - capacity / 5));
+            case "small": // 1% - 20% of the capacity (many items per bin)
+                return Math.max(1, capacity / 100) + rng.nextInt(Math.max(1, capacity / 5));
+            case "large": // 1/3 - 9/10 of the capacity (few items per bin)
+                return capacity / 3 + rng.nextInt(Math.max(1, 9 * capacity / 10 - capacity / 3));
+            case "normal": // mean 1/3, deviation 1/10 of the capacity
+                int size = (int) Math.round(capacity / 3.0 + rng.nextGaussian() * capacity / 10.0);
+                return Math.min(capacity, Math.max(1, size));
+            default:
+                throw new IllegalArgumentException("[Generator] Unknown distribution: " + distribution);
+        }
+    }
+}
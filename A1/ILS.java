@@ -2,7 +2,6 @@
 // Iterated Local Search class to solve the bin packing problem
 
 import java.util.Collections;
-import java.util.concurrent.atomic.AtomicLong;
 
 public class ILS extends Solver {
     public ILS() {
@@ -36,21 +35,22 @@ public class ILS extends Solver {
      * @return void
      */
     public void solve(){
-        AtomicLong start = new AtomicLong(System.currentTimeMillis());
-        // 1.
-        Collections.sort(this.items, Collections.reverseOrder()); 
-        // 2.
-        bestFitAll();
-        setBestBins();
-        this.best = this.bins.size(); //Initial best no. of bins
+        if (startSolve()) { // (skipped when resuming from a checkpoint)
+            // 1.
+            Collections.sort(this.items, Collections.reverseOrder()); 
+            // 2.
+            bestFitAll();
+            updateBest(); //Initial best no. of bins
+        }
         // 3.-6.
         Boolean repeat = false;
         Boolean repeatOverall = false;
         do{
+            checkpoint(); // Save the state of the search (if a checkpoint is due)
             repeatOverall = false;
             //Choose whether to pick a random bin or the least filled bin
             char picked;
-            if(Math.random() > 0.4){
+            if(this.rng.nextDouble() > 0.4){
                 picked = 'L'; //least-filled bin
             } else {
                 picked = 'R'; //random bin
@@ -61,6 +61,7 @@ public class ILS extends Solver {
                 pickedBin = getBin(picked);
                 int PBSize = sizeOf(pickedBin);
                 tryEmptyBin(pickedBin);
+                this.iterations++;
                 //check if bin still exists
                 try{
                     this.bins.get(pickedBin);
@@ -68,8 +69,7 @@ public class ILS extends Solver {
                     pickedBin = -1;
                 }
                 if (this.bins.size() < this.best || (pickedBin != -1 && sizeOf(pickedBin) < PBSize) ) {
-                    setBestBins();
-                    this.best = this.bins.size(); //New no.of bins
+                    updateBest(); //New no.of bins
                     repeat = true;
                     repeatOverall = true;
                 } else {
@@ -82,9 +82,10 @@ public class ILS extends Solver {
             do {
                 pickedBin = getBin(picked);
                 int PBSize = sizeOf(pickedBin);
-                int randomBin = (int)(Math.random() * this.bins.size());
+                int randomBin = (int)(this.rng.nextDouble() * this.bins.size());
                 int RBSize = sizeOf(randomBin);
                 trySwap(pickedBin, randomBin);
+                this.iterations++;
                 //check if bin still exists
                 try{
                     this.bins.get(pickedBin);
@@ -97,8 +98,7 @@ public class ILS extends Solver {
                     randomBin = -1;
                 }
                 if (this.bins.size() < this.best || (pickedBin != -1 && sizeOf(pickedBin) < PBSize) || (randomBin != -1 && sizeOf(randomBin) < RBSize) ) {
-                    setBestBins();
-                    this.best = this.bins.size(); //New no.of bins
+                    updateBest(); //New no.of bins
                     repeat = true;
                     repeatOverall = true;
                 } else {
@@ -106,7 +106,7 @@ public class ILS extends Solver {
                     repeat = false;
                 }
             } while(repeat);
-        } while(repeatOverall || Math.random() > 0.1);
-        this.time.set(System.currentTimeMillis() - start.get());
+        } while(repeatOverall || this.rng.nextDouble() > 0.1);
+        finishSolve();
     }
 }
\ No newline at end of file
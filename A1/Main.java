@@ -1,11 +1,12 @@
 // Tayla Orsmond u21467456
 // Main program for solving the Bin Packing Problem using the Iterated Local Search and Tabu Search algorithms
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 
 public class Main {
     // Dataset paths 
-    private static String[] datasets = {
+    protected static String[] datasets = {
         "Falkenauer/Falkenauer_T",
         "Falkenauer/Falkenauer_U",
         "Hard28",
@@ -16,15 +17,40 @@ public class Main {
         "Schwerin/Schwerin_2",
         "Waescher",
     };
+    // Structured results file (one record per solved PI)
+    private static String results = "Solutions/results.csv";
+    // Seed used for every PI (so that runs are repeatable & can be cached)
+    private static long seed = 2109626023L;
+    // Result cache (PIs that have not changed are not solved again)
+    private static ResultCache cache;
+    // Checkpoints of running solves (an interrupted solve is resumed the next time the program runs)
+    private static String checkpoints = "Solutions/Checkpoints";
+    private static long checkpointInterval = 60000;
     
     public static void main(String[] args) {
         System.out.println("========== COS 314 - Assignment 1 - Bin Packing Problem ==========");
         // Create a new loader object
         Loader loader = new Loader();
+        // Start with a fresh results file
+        new File(results).delete();
+        // Load the result cache (--no-cache disables it, --clear-cache invalidates all entries)
+        cache = new ResultCache("Solutions/cache.txt", 10000);
+        for (String arg : args) {
+            if (arg.equals("--no-cache")) {
+                cache = null;
+                break;
+            } else if (arg.equals("--clear-cache")) {
+                cache.clear();
+            }
+        }
         System.out.println("========== Running ILS... ==========");
         runILS(loader);
         System.out.println("\n========== Running Tabu Search... ==========");
         runTS(loader);
+        if (cache != null) {
+            cache.save();
+            System.out.println("\nResult cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses (" + cache.size() + " entries)");
+        }
         System.out.println("\n========== Summarizing results... ==========");
         summarize();
         System.out.println("The results for every PI have been written to the Solutions folder, as well as a summary for each dataset & a summary_report of all results.");
@@ -56,17 +82,21 @@ public class Main {
                     System.out.print("\r\\");
                     // Load the PI
                     ArrayList<String> data = loader.readFile(dataset + "/" + pi);
+                    String hash = ResultCache.hash(data);
                     // Get the optimal solution for the PI
                     int optimal = optima.get(pi.substring(0, pi.length() - 4));
                     // Solve the bin packing problem for the PI using ILS
                     ils.clear(); // Clear the ILS object
+                    ils.setDataset(dataset);
                     ils.setPI(pi);
                     ils.setData(data);
                     System.out.print("\r|");
                     ils.setOptimal(optimal);
-                    ils.solve();
+                    ils.setSeed(seed);
+                    solve(ils, hash);
                     System.out.print("\r/");
                     ils.writeResults("Solutions/ILS/" + dataset + "/SOL_" + pi); // Write the results (all bins & solution & time to solve)
+                    ils.writeRecord(results); // Append the structured record of the run
                     //System.out.println("[ILS] PI: "+ pi.substring(0, pi.length() - 4) + " -> No of bins: " + ils.getBestSolution() + " Time to Solve: " + ils.getTime()); // Print the best solution & time to solve
                     System.out.print("\r-");
                 }
@@ -98,18 +128,22 @@ public class Main {
                     System.out.print("\r\\");
                     // Load the PI
                     ArrayList<String> data = loader.readFile(dataset + "/" + pi);
+                    String hash = ResultCache.hash(data);
                     // Get the optimal solution for the PI
                     int optimal = optima.get(pi.substring(0, pi.length() - 4));
 
                     // Solve the bin packing problem for the PI using Tabu Search
                     ts.clear(); // Clear the Tabu Search object
+                    ts.setDataset(dataset);
                     ts.setPI(pi);
                     ts.setData(data);
                     System.out.print("\r|");
                     ts.setOptimal(optimal);
-                    ts.solve();
+                    ts.setSeed(seed);
+                    solve(ts, hash);
                     System.out.print("\r/");
                     ts.writeResults("Solutions/Tabu/" + dataset + "/SOL_" + pi); // Write the results (all bins & solution & time to solve)
+                    ts.writeRecord(results); // Append the structured record of the run
                     //System.out.println("[TS] PI: "+ pi.substring(0, pi.length() - 4) + " -> No of bins: " + ts.getBestSolution() + " Time to Solve: " + ts.getTime()); // Print the best solution & time to solve
                     System.out.print("\r-");
                 }
@@ -121,19 +155,39 @@ public class Main {
             e.printStackTrace();
         }
     }
+    /**
+     * Solve the PI loaded into the solver, or restore its result from the result cache
+     * @details Long solves are checkpointed periodically, and resumed from the checkpoint if the program was interrupted
+     * @param solver The solver (with the PI, optimal solution and seed set)
+     * @param hash The hash of the PI's content
+     * @return void
+     */
+    protected static void solve(Solver solver, String hash) {
+        String key = ResultCache.key(hash, solver.getAlgorithm(), solver.getParameters(), solver.getSeed());
+        String entry = cache == null ? null : cache.get(key);
+        if (entry != null) {
+            solver.restore(entry);
+            return;
+        }
+        // Resume from a checkpoint if this solve was interrupted before
+        new File(checkpoints).mkdirs();
+        solver.setCheckpoint(checkpoints + "/" + solver.getAlgorithm() + "_" + hash.substring(0, 16) + "_" + solver.getSeed() + ".ckpt", checkpointInterval);
+        solver.resume();
+        solver.solve();
+        if (cache != null) {
+            cache.put(key, solver.getCacheEntry());
+        }
+    }
     /**
      * Summarizes the results of the ILS and Tabu Search algorithms using the summarizer class
-     * @details Compares the results of the ILS and Tabu Search algorithms and writes the results to a file
+     * @details Compares the results of the ILS and Tabu Search algorithms (per dataset, incl. time percentiles) and writes the results to a file
      * @return void
      */
     protected static void summarize() {
         // Create a new summarizer object (Calculates and summarizes the results)
         Summarizer summarizer = new Summarizer();
-        // Loop through the datasets
-        for (String dataset : datasets) {
-            // Summarize the dataset
-            summarizer.summarize(dataset, "Solutions/ILS/" + dataset + "/Summary.txt", "Solutions/Tabu/" + dataset + "/Summary.txt");
-        }
+        // Stream the records of every dataset & algorithm
+        summarizer.summarize(results);
         // Write the summary
         summarizer.writeSummary("Solutions/Summary_Report.txt");
         // Print the summary
@@ -0,0 +1,107 @@
+// Tayla Orsmond u21467456
+// RunRecord class holds one structured (machine-readable) result for a single solve of a PI
+// Records are written as CSV lines so that they can be streamed by the Summarizer (and read by other tools)
+
+public class RunRecord {
+    // The column names of the CSV file (written as the first line of every results file)
+    public static final String HEADER = "dataset,pi,algorithm,seed,result,optimal,status,time,iterations";
+
+    // Variables ====================
+    private final String dataset; // The dataset the PI belongs to
+    private final String pi; // The name of the PI
+    private final String algorithm; // The algorithm used to solve the PI
+    private final long seed; // The seed of the random number generator
+    private final int result; // The no. of bins found
+    private final int optimal; // The optimal no. of bins
+    private final char status; // O = Optimal, N = Near Optimal, S = Sub Optimal
+    private final long time; // The time taken to solve the PI (ms)
+    private final long iterations; // The no. of moves tried by the algorithm
+
+    // Constructor ====================
+    public RunRecord(String dataset, String pi, String algorithm, long seed, int result, int optimal, long time, long iterations) {
+        this.dataset = dataset;
+        this.pi = pi;
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.result = result;
+        this.optimal = optimal;
+        this.status = statusOf(result, optimal);
+        this.time = time;
+        this.iterations = iterations;
+    }
+
+    // Getters ====================
+    public String getDataset() {
+        return this.dataset;
+    }
+
+    public String getPI() {
+        return this.pi;
+    }
+
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    public int getResult() {
+        return this.result;
+    }
+
+    public int getOptimal() {
+        return this.optimal;
+    }
+
+    public char getStatus() {
+        return this.status;
+    }
+
+    public long getTime() {
+        return this.time;
+    }
+
+    public long getIterations() {
+        return this.iterations;
+    }
+
+    // Helpers ====================
+    /**
+     * Classify a result against the optimal solution
+     * @param result The no. of bins found
+     * @param optimal The optimal no. of bins
+     * @return O (Optimal), N (Near Optimal - off by one) or S (Sub Optimal)
+     */
+    public static char statusOf(int result, int optimal) {
+        if (result <= optimal) {
+            return 'O';
+        } else if (result == optimal + 1) {
+            return 'N';
+        }
+        return 'S';
+    }
+
+    /**
+     * Convert the record to a CSV line (without a line separator)
+     * @return The CSV line (String)
+     */
+    public String toCSV() {
+        return this.dataset + "," + this.pi + "," + this.algorithm + "," + this.seed + "," + this.result + "," + this.optimal + "," + this.status + "," + this.time + "," + this.iterations;
+    }
+
+    /**
+     * Parse a record from a CSV line written by toCSV
+     * @param line The CSV line
+     * @return The record (RunRecord)
+     * @throws IllegalArgumentException if the line does not have the expected no. of columns
+     */
+    public static RunRecord fromCSV(String line) {
+        String[] cols = line.split(",");
+        if (cols.length != 9) {
+            throw new IllegalArgumentException("[RunRecord] Malformed record: " + line);
+        }
+        return new RunRecord(cols[0], cols[1], cols[2], Long.parseLong(cols[3]), Integer.parseInt(cols[4]), Integer.parseInt(cols[5]), Long.parseLong(cols[7]), Long.parseLong(cols[8]));
+    }
+}
@@ -0,0 +1,132 @@
+// Tayla Orsmond u21467456
+// Scaling suite: generates larger and larger synthetic PIs and records the time & memory used by ILS and Tabu Search
+// The growth exponent between sizes shows where the run time stops growing linearly (e.g., 2.0 = quadratic)
+// A solver is dropped from the larger sizes once a single solve takes longer than the time budget
+// Usage: java Scaling [min no. of items] [max no. of items] [time budget (s)] [distribution] [seed]
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+
+public class Scaling {
+    public static void main(String[] args) {
+        int minItems = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int maxItems = args.length > 1 ? Integer.parseInt(args[1]) : 10000000;
+        long budget = (args.length > 2 ? Long.parseLong(args[2]) : 60) * 1000;
+        String distribution = args.length > 3 ? args[3] : "uniform";
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 2109626023L;
+        System.out.println("========== COS 314 - Assignment 1 - Scaling suite (" + distribution + ", up to " + maxItems + " items) ==========");
+
+        String[] algorithms = {"ILS", "Tabu"};
+        boolean[] active = {true, true};
+        long[] lastTime = new long[algorithms.length];
+        int[] lastSize = new int[algorithms.length];
+        Loader loader = new Loader();
+        new File("Solutions/Scaling").mkdirs();
+        try {
+            FileWriter results = new FileWriter("Solutions/scaling.csv");
+            results.write("algorithm,items,distribution,bins,lowerBound,loadTime,time,exponent,iterations,peakHeapMB\n");
+            for (int size : sizes(minItems, maxItems)) {
+                if (!active[0] && !active[1]) {
+                    break;
+                }
+                String path = "Solutions/Scaling/scale_" + size + ".txt";
+                int lowerBound = Generator.write(path, size, 1000, distribution, seed);
+                for (int a = 0; a < algorithms.length; a++) {
+                    if (!active[a]) {
+                        continue;
+                    }
+                    // Load the PI the same way as Main does
+                    long load = System.currentTimeMillis();
+                    ArrayList<String> data = loader.readFile(path);
+                    Solver solver = algorithms[a].equals("ILS") ? new ILS() : new TabuSearch();
+                    solver.setDataset("Scaling");
+                    solver.setPI("scale_" + size + ".txt");
+                    solver.setData(data);
+                    solver.setOptimal(lowerBound);
+                    solver.setSeed(seed);
+                    data = null;
+                    load = System.currentTimeMillis() - load;
+
+                    System.gc();
+                    resetPeakHeap();
+                    solver.solve();
+                    long peak = peakHeap() / (1024 * 1024);
+
+                    // Growth exponent of the run time since the previous size: log(t2 / t1) / log(n2 / n1)
+                    String exponent = "";
+                    if (lastTime[a] > 0 && solver.getTime() > 0) {
+                        exponent = String.valueOf(Math.round(Math.log((double) solver.getTime() / lastTime[a]) / Math.log((double) size / lastSize[a]) * 100) / 100.0);
+                    }
+                    lastTime[a] = solver.getTime();
+                    lastSize[a] = size;
+
+                    String line = algorithms[a] + "," + size + "," + distribution + "," + solver.getBestSolution() + "," + lowerBound + "," + load + "," + solver.getTime()
+                        + "," + exponent + "," + solver.getIterations() + "," + peak;
+                    results.write(line + "\n");
+                    results.flush();
+                    System.out.println("[" + algorithms[a] + "] " + size + " items: " + solver.getBestSolution() + " bins (LB " + lowerBound + ") load " + load + "ms solve "
+                        + solver.getTime() + "ms" + (exponent.isEmpty() ? "" : " (exponent " + exponent + ")") + " peak heap " + peak + "MB");
+                    if (solver.getTime() > budget) {
+                        System.out.println("[" + algorithms[a] + "] Over the time budget, not running larger sizes");
+                        active[a] = false;
+                    }
+                }
+                new File(path).delete();
+            }
+            results.close();
+        } catch (IOException e) {
+            System.out.println("[Scaling] Error: " + e.getMessage());
+            e.printStackTrace();
+        }
+        System.out.println("The results have been written to Solutions/scaling.csv");
+    }
+
+    /**
+     * Get the sizes of the PIs to test: 1000, 2000, 5000, 10000, 20000, 50000, ... between the minimum and maximum
+     * @param minItems The minimum no. of items (a power of 10)
+     * @param maxItems The maximum no. of items
+     * @return The sizes (ArrayList of Integers)
+     */
+    private static ArrayList<Integer> sizes(int minItems, int maxItems) {
+        ArrayList<Integer> sizes = new ArrayList<Integer>();
+        for (long base = minItems; base <= maxItems; base *= 10) {
+            for (int m : new int[] {1, 2, 5}) {
+                if (base * m <= maxItems) {
+                    sizes.add((int) (base * m));
+                }
+            }
+        }
+        return sizes;
+    }
+
+    /**
+     * Reset the peak usage of the heap memory pools
+     * @return void
+     */
+    private static void resetPeakHeap() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Get the peak usage of the heap since the last reset
+     * @return The peak usage (bytes)
+     */
+    private static long peakHeap() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+}
@@ -4,10 +4,13 @@
 // Tayla Orsmond u21467456
 // Iterated Local Search class to solve the bin packing problem
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 
 public abstract class Solver {
@@ -21,6 +24,17 @@ public abstract class Solver {
     protected AtomicLong time; // The time taken to solve the PI
     protected ArrayList<ArrayList<Integer>> bins; // The bins used to solve the PI
     protected ArrayList<String> existingSummaries; // The summaries of the PIs that have been solved
+    protected String dataset; // The dataset the PI belongs to
+    protected String algorithm; // The name of the algorithm (for the results records)
+    protected long seed; // The seed of the random number generator
+    protected Random rng; // The random number generator
+    protected long iterations; // The no. of moves tried while solving the PI
+    protected long start; // The time the solve started (ms)
+    protected long timeToBest; // The time taken to find the best solution (ms)
+    protected String checkpointPath; // The path to the checkpoint file (null = no checkpoints)
+    protected long checkpointInterval; // The time between checkpoints (ms)
+    protected long lastCheckpoint; // The time of the last checkpoint (ms)
+    protected boolean resumed; // Whether the state was loaded from a checkpoint (solve continues instead of starting over)
 
     // Constructor ====================
     public Solver() {
@@ -32,6 +46,9 @@ public abstract class Solver {
         this.items = new ArrayList<Integer>();
         this.bestBins = new ArrayList<ArrayList<Integer>>();
         this.existingSummaries = new ArrayList<String>();
+        this.algorithm = getClass().getSimpleName();
+        this.rng = new Random();
+        setSeed(System.nanoTime());
     }
 
     // Setters ==================== 
@@ -43,6 +60,32 @@ public abstract class Solver {
         this.optimal = optimal;
     }
 
+    public void setDataset(String dataset) {
+        this.dataset = dataset;
+    }
+
+    /**
+     * Enable periodic checkpoints while solving
+     * @param path The path to the checkpoint file (null to disable checkpoints)
+     * @param interval The minimum time between checkpoints (ms)
+     * @return void
+     */
+    public void setCheckpoint(String path, long interval) {
+        this.checkpointPath = path;
+        this.checkpointInterval = interval;
+    }
+
+    /**
+     * Seed the random number generator
+     * @details The seed is recorded in the results so that a run can be repeated
+     * @param seed The seed
+     * @return void
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.rng.setSeed(seed);
+    }
+
     public void setData(ArrayList<String> data) {
         data.remove(0);//no. of items in the PI
         this.capacity = Integer.parseInt(data.get(0));
@@ -60,6 +103,10 @@ public abstract class Solver {
         this.bins.clear();
         this.items.clear();
         this.bestBins.clear();
+        this.iterations = 0;
+        this.timeToBest = 0;
+        this.resumed = false;
+        setSeed(System.nanoTime());
     }
 
     // Getters
@@ -75,6 +122,31 @@ public abstract class Solver {
         return this.time.get();
     }
 
+    public long getTimeToBest() {
+        return this.timeToBest;
+    }
+
+    public long getSeed() {
+        return this.seed;
+    }
+
+    public long getIterations() {
+        return this.iterations;
+    }
+
+    public String getAlgorithm() {
+        return this.algorithm;
+    }
+
+    /**
+     * Get the structured record of the last solve
+     * @return The record (RunRecord)
+     */
+    public RunRecord getRecord() {
+        String name = this.pi.endsWith(".txt") ? this.pi.substring(0, this.pi.length() - 4) : this.pi;
+        return new RunRecord(this.dataset, name, this.algorithm, this.seed, this.best, this.optimal, this.getTime(), this.iterations);
+    }
+
     public String getBins() {
         String bins = "";
         for (ArrayList<Integer> bin : this.bins) {
@@ -83,6 +155,165 @@ public abstract class Solver {
         return bins;
     }
 
+    /**
+     * Solve the PI (implemented by each algorithm)
+     * @return void
+     */
+    public abstract void solve();
+
+    /**
+     * Load the state of an interrupted solve from the checkpoint file (if there is one for this PI)
+     * @details Must be called after the PI is loaded; the next call to solve continues the search from the checkpoint
+     * @return true if the solve will be resumed, false if it will start from scratch
+     */
+    public boolean resume() {
+        if (this.checkpointPath == null) {
+            return false;
+        }
+        try {
+            this.resumed = Checkpoint.load(this.checkpointPath, this);
+        } catch (IOException e) {
+            System.out.println("[Solver] Error reading CHECKPOINT file " + this.checkpointPath + ": " + e.getMessage());
+            this.resumed = false;
+        }
+        return this.resumed;
+    }
+
+    /**
+     * Save a checkpoint if checkpoints are enabled and the interval has passed since the last one
+     * @details Called at the start of an iteration of the search (where the search can be resumed)
+     * @return void
+     */
+    protected void checkpoint() {
+        if (this.checkpointPath == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - this.lastCheckpoint < this.checkpointInterval) {
+            return;
+        }
+        try {
+            Checkpoint.save(this.checkpointPath, this);
+        } catch (IOException e) {
+            System.out.println("[Solver] Error writing CHECKPOINT file " + this.checkpointPath + ": " + e.getMessage());
+        }
+        this.lastCheckpoint = now;
+    }
+
+    /**
+     * Start the timer (or continue it after resuming) & set up the checkpoints
+     * @return true if the solve starts from scratch, false if it continues from a checkpoint
+     */
+    protected boolean startSolve() {
+        this.lastCheckpoint = System.currentTimeMillis();
+        if (this.resumed) {
+            this.resumed = false;
+            return false;
+        }
+        this.start = System.currentTimeMillis();
+        return true;
+    }
+
+    /**
+     * Stop the timer & remove the checkpoint (the solve has finished)
+     * @return void
+     */
+    protected void finishSolve() {
+        this.time.set(System.currentTimeMillis() - this.start);
+        if (this.checkpointPath != null) {
+            Checkpoint.delete(this.checkpointPath);
+        }
+    }
+
+    /**
+     * Write the state of the search to a checkpoint
+     * @param out The stream to write to
+     * @return void
+     * @throws IOException
+     */
+    protected void writeState(DataOutputStream out) throws IOException {
+        out.writeUTF(this.algorithm);
+        out.writeUTF(this.pi);
+        out.writeInt(this.items.size());
+        out.writeLong(System.currentTimeMillis() - this.start); // elapsed time
+        out.writeLong(this.timeToBest);
+        out.writeLong(this.iterations);
+        out.writeInt(this.best);
+        Checkpoint.writeRandom(out, this.rng);
+        Checkpoint.writeBins(out, this.bins);
+        Checkpoint.writeBins(out, this.bestBins);
+    }
+
+    /**
+     * Read the state of the search from a checkpoint
+     * @param in The stream to read from
+     * @return true if the checkpoint belongs to this algorithm & PI (and was loaded), false otherwise
+     * @throws IOException
+     */
+    protected boolean readState(DataInputStream in) throws IOException {
+        if (!in.readUTF().equals(this.algorithm) || !in.readUTF().equals(this.pi) || in.readInt() != this.items.size()) {
+            return false;
+        }
+        this.start = System.currentTimeMillis() - in.readLong();
+        this.timeToBest = in.readLong();
+        this.iterations = in.readLong();
+        this.best = in.readInt();
+        this.rng = Checkpoint.readRandom(in);
+        Checkpoint.readBins(in, this.bins);
+        Checkpoint.readBins(in, this.bestBins);
+        return true;
+    }
+
+    /**
+     * Get the parameters of the algorithm (part of the result cache key)
+     * @return The parameters as name=value pairs (String)
+     */
+    public String getParameters() {
+        return "";
+    }
+
+    /**
+     * Get the entry to store in the result cache for the last solve
+     * @details The record followed by the bins (items separated by spaces, bins separated by semicolons)
+     * @return The cache entry (String)
+     */
+    public String getCacheEntry() {
+        String bins = "";
+        for (ArrayList<Integer> bin : this.bins) {
+            if (!bins.isEmpty()) {
+                bins += ";";
+            }
+            for (int i = 0; i < bin.size(); i++) {
+                bins += (i == 0 ? "" : " ") + bin.get(i);
+            }
+        }
+        return getRecord().toCSV() + "\t" + bins;
+    }
+
+    /**
+     * Restore the result of a solve from a result cache entry (instead of solving the PI again)
+     * @param entry The cache entry (from getCacheEntry)
+     * @return void
+     */
+    public void restore(String entry) {
+        String[] parts = entry.split("\t", -1);
+        RunRecord record = RunRecord.fromCSV(parts[0]);
+        this.best = record.getResult();
+        this.time.set(record.getTime());
+        this.iterations = record.getIterations();
+        this.bins.clear();
+        if (!parts[1].isEmpty()) {
+            for (String bin : parts[1].split(";")) {
+                ArrayList<Integer> newBin = new ArrayList<Integer>();
+                for (String item : bin.split(" ")) {
+                    newBin.add(Integer.parseInt(item));
+                }
+                this.bins.add(newBin);
+            }
+        }
+        setBestBins();
+    }
+
     // Helpers ====================
     /**
      * Get the size of a bin (i.e, the sum of the items in the bin)
@@ -109,6 +340,19 @@ public abstract class Solver {
         }
     }
     
+    /**
+     * Record the current bins as the best solution
+     * @details Also records the time taken to find the solution if it uses fewer bins than the previous best
+     * @return void
+     */
+    protected void updateBest() {
+        setBestBins();
+        if (this.bins.size() < this.best) {
+            this.timeToBest = System.currentTimeMillis() - this.start;
+        }
+        this.best = this.bins.size();
+    }
+
     /**
      * Make a deep copy of the bestBins to put in bins
      * @details This is used to backtrack to the bestBins (i.e., previous best solution)
@@ -177,11 +421,11 @@ public abstract class Solver {
             case 'L':
                 return leastFilledBin();
             case 'R':
-                Boolean bias = Math.random() < 0.6; //Bias towards the back half of the bins
+                Boolean bias = this.rng.nextDouble() < 0.6; //Bias towards the back half of the bins
                 if(bias){
-                    return (int)(Math.random() * (this.bins.size() / 2)) + (this.bins.size() / 2);
+                    return (int)(this.rng.nextDouble() * (this.bins.size() / 2)) + (this.bins.size() / 2);
                 }
-                return (int)(Math.random() * this.bins.size());
+                return (int)(this.rng.nextDouble() * this.bins.size());
             default:
                 return 0;
         }
@@ -228,8 +472,8 @@ public abstract class Solver {
      */
     protected void trySwap(int pickedBin, int randomBin){
         // 4. & 6. Attempt to swap an item from the bin with an item from a random bin (if possible)
-        int randomItem = (int)(Math.random() * this.bins.get(randomBin).size());
-        int pickedItem = (int)(Math.random() * this.bins.get(pickedBin).size());
+        int randomItem = (int)(this.rng.nextDouble() * this.bins.get(randomBin).size());
+        int pickedItem = (int)(this.rng.nextDouble() * this.bins.get(pickedBin).size());
         if(pickedItem > randomItem && sizeOf(randomBin) + pickedItem <= this.capacity && sizeOf(pickedBin) + randomItem <= this.capacity){
             //swap
             Integer temp = this.bins.get(randomBin).get(randomItem);
@@ -271,15 +515,7 @@ public abstract class Solver {
             writer.close();
 
             // Create a new summary string
-            String summary = "";
-            if (this.best <= this.optimal) {
-                summary = "O:";
-            } else if (this.best == this.optimal + 1) {
-                summary = "N:";
-            } else {
-                summary = "S:";
-            }
-            summary += this.getBestSolution() + ":" + this.getTime();
+            String summary = RunRecord.statusOf(this.best, this.optimal) + ":" + this.getBestSolution() + ":" + this.getTime();
             // Add the summary to the existing summaries
             existingSummaries.add(summary);
 
@@ -289,6 +525,29 @@ public abstract class Solver {
         }
     }
 
+    /**
+     * Append the structured record of this PI to a results file (CSV)
+     * @details The header is written when the file is new, so many runs can stream into the same file
+     * @param path The path to the results file
+     * @return void
+     */
+    public void writeRecord(String path) {
+        try {
+            File file = new File(path);
+            Boolean isNew = !file.exists() || file.length() == 0;
+            // Open the file writer in append mode
+            FileWriter writer = new FileWriter(file, true);
+            if (isNew) {
+                writer.write(RunRecord.HEADER + "\n");
+            }
+            writer.write(getRecord().toCSV() + "\n");
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("[Solver] Error writing to RESULTS file " + path + ": ");
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Write the summary of all PI's to a file using the existing summaries
      * @param path The path to the file to write to
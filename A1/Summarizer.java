@@ -1,102 +1,136 @@
 // Tayla Orsmond u21467456
 // The Summarizer class is used to calculate & summarize the results of the ILS and Tabu Search algorithms
+// The results are streamed from the structured results file (one RunRecord per line) in a single pass
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 
 public class Summarizer {
-    // Variables ==================== 
+    // Variables ====================
     private ArrayList<String> summaries;
-    private Long totalTimeForILS;
-    private Long totalTimeForTabu;
-    private Integer totalPIsTested;
+    private LinkedHashMap<String, Long> totalTimes; // The total time per algorithm
+    private LinkedHashMap<String, LinkedHashMap<String, Stats>> stats; // The stats per dataset per algorithm
+    private Integer totalRecords;
 
     // Constructor ====================
     Summarizer() {
         summaries = new ArrayList<String>();
-        totalTimeForILS = 0L;
-        totalTimeForTabu = 0L;
-        totalPIsTested = 0;
+        totalTimes = new LinkedHashMap<String, Long>();
+        stats = new LinkedHashMap<String, LinkedHashMap<String, Stats>>();
+        totalRecords = 0;
     }
 
     /**
-     * Summarize the results of the ILS and Tabu Search algorithms
-     * @param dataset The dataset name
-     * @param ITSPath The path to the ILS results summary
-     * @param TabuPath The path to the Tabu Search results summary
-     * @return void
+     * Running totals for one algorithm on one dataset
+     * @details Times are kept in a growable primitive array so the percentiles can be calculated at the end of the pass
      */
-    public void summarize(String dataset, String ITSPath, String TabuPath) {
-        try {
-            // Read the results for the ILS algorithm
-            Loader loader = new Loader();
-            ArrayList<String> res = loader.readFile(ITSPath);
-            // Calculate results for the ILS algorithm
-            String summary = "Dataset: " + dataset;
-            summary += calculateSummary(res, "ILS");
-            // Clear the results
-            res.clear();
+    private static class Stats {
+        private int optimal = 0;
+        private int nearOptimal = 0;
+        private int subOptimal = 0;
+        private long totalTime = 0;
+        private long[] times = new long[16];
+        private int count = 0;
 
-            // Read the results for the Tabu Search algorithm
-            res = loader.readFile(TabuPath);
-            // Calculate results for the Tabu Search algorithm
-            summary += calculateSummary(res, "Tabu");
-            // Clear the results
-            res.clear();
+        // Add a record to the running totals
+        private void add(RunRecord record) {
+            switch (record.getStatus()) {
+                case 'O':
+                    optimal++;
+                    break;
+                case 'N':
+                    nearOptimal++;
+                    break;
+                default:
+                    subOptimal++;
+                    break;
+            }
+            totalTime += record.getTime();
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+            }
+            times[count++] = record.getTime();
+        }
 
-            // Add the results to the summaries
-            summaries.add(summary);
+        // Nearest-rank percentile of the solve times (times must be sorted first)
+        private long percentile(double p) {
+            int rank = (int) Math.ceil(p / 100.0 * count);
+            return times[Math.max(rank, 1) - 1];
+        }
+    }
+
+    /**
+     * Summarize the results of all algorithms for all datasets
+     * @details Reads the results file line by line (without loading it into memory) and updates the running totals
+     * @param path The path to the results file (CSV of RunRecords)
+     * @return void
+     */
+    public void summarize(String path) {
+        try {
+            BufferedReader reader = new BufferedReader(new FileReader(path));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Skip the header(s) and blank lines
+                if (line.isEmpty() || line.startsWith(RunRecord.HEADER)) {
+                    continue;
+                }
+                RunRecord record = RunRecord.fromCSV(line);
+                stats.computeIfAbsent(record.getDataset(), k -> new LinkedHashMap<String, Stats>())
+                    .computeIfAbsent(record.getAlgorithm(), k -> new Stats())
+                    .add(record);
+                totalTimes.merge(record.getAlgorithm(), record.getTime(), Long::sum);
+                totalRecords++;
+            }
+            reader.close();
         } catch (IOException e) {
-            System.out.println("[Summarizer] Error reading SUMMARY files: " + e.getMessage());
+            System.out.println("[Summarizer] Error reading RESULTS file: " + e.getMessage());
             e.printStackTrace();
         }
+
+        // Build the summaries for each dataset
+        summaries.clear();
+        for (String dataset : stats.keySet()) {
+            String summary = "Dataset: " + dataset;
+            for (String algorithm : stats.get(dataset).keySet()) {
+                summary += calculateSummary(stats.get(dataset).get(algorithm), algorithm);
+            }
+            summaries.add(summary);
+        }
     }
 
     /**
-     * Calculate the results per dataset for each algorithm (ILS & Tabu Search)
-     * @param results The results for the algorithm
+     * Calculate the results per dataset for an algorithm
+     * @param s The running totals for the algorithm
      * @param algorithm The algorithm name
      * @return The summary for the algorithm (String)
      */
-    private String calculateSummary(ArrayList<String> results, String algorithm) {
-        Integer totalPIs = 0;
-        Integer totalOptimal = 0;
-        Integer totalNearOptimal = 0;
-        Integer totalSubOptimal = 0;
-        Long totalTime = 0L;
-        Long avgTime = 0L;
-
-        // Loop through the results
-        for (String result : results) {
-            // Split the result into an array
-            String[] splitResult = result.split(":");
-            // Check if the result is optimal
-            if (splitResult[0].compareTo("O") == 0) {
-                totalOptimal++;
-            } else if (splitResult[0].compareTo("N") == 0) {
-                totalNearOptimal++;
-            } else if (splitResult[0].compareTo("S") == 0) {
-                totalSubOptimal++;
-            }
-            // Add the time to the total time
-            totalTime += Long.parseLong(splitResult[2]);
-            // Increment the total number of PIs
-            totalPIs++;
-        }
+    private String calculateSummary(Stats s, String algorithm) {
+        // Sort the times for the percentiles
+        Arrays.sort(s.times, 0, s.count);
         // Calculate the average time
-        avgTime = totalTime / totalPIs;
-        // Add the total time to the total time for the algorithm
-        if (algorithm.compareTo("ILS") == 0) {
-            totalTimeForILS += totalTime;
-        } else if (algorithm.compareTo("Tabu") == 0) {
-            totalTimeForTabu += totalTime;
-        }
-        // Add the total number of PIs to the total number of PIs tested
-        totalPIsTested += totalPIs;
+        long avgTime = s.totalTime / s.count;
         // Return the summary of the results
-        return "\n\t" + algorithm + " [Optimal: " + totalOptimal + " NearOptimal: " + totalNearOptimal + " SubOptimal: " + totalSubOptimal + " Total: " + totalPIs + " AvgTime: " + avgTime + "ms]";
+        return "\n\t" + algorithm + " [Optimal: " + s.optimal + " NearOptimal: " + s.nearOptimal + " SubOptimal: " + s.subOptimal + " Total: " + s.count + " AvgTime: " + avgTime + "ms"
+            + " P50: " + s.percentile(50) + "ms P95: " + s.percentile(95) + "ms P99: " + s.percentile(99) + "ms]";
+    }
+
+    /**
+     * Get the header lines of the report (total times per algorithm & PIs tested)
+     * @return The header lines (String)
+     */
+    private String totals() {
+        String res = "";
+        for (String algorithm : totalTimes.keySet()) {
+            res += "\nTotal Time for " + algorithm + ": " + totalTimes.get(algorithm) + "ms";
+        }
+        res += "\nTotal PIs Tested: " + (totalTimes.isEmpty() ? 0 : totalRecords / totalTimes.size());
+        return res;
     }
 
     /**
@@ -114,17 +148,13 @@ public class Summarizer {
             }
             FileWriter writer = new FileWriter(file);
             writer.write("Summaries of the results for the ILS and Tabu Search algorithms: ");
-            // Write the total time for the ILS algorithm
-            writer.write("\nTotal Time for ILS: " + totalTimeForILS + "ms");
-            // Write the total time for the Tabu Search algorithm
-            writer.write("\nTotal Time for Tabu: " + totalTimeForTabu + "ms");
-            // Write the total number of PIs tested
-            writer.write("\nTotal PIs Tested: " + totalPIsTested / 2);
+            // Write the total time for each algorithm & the total number of PIs tested
+            writer.write(totals());
             // Loop through the summaries
             for (String summary : summaries) {
                 // Write the summary to the file
                 writer.write("\n" + summary);
-            }           
+            }
             // Close the writer
             writer.close();
         } catch (IOException e) {
@@ -138,12 +168,8 @@ public class Summarizer {
      * @return void
      */
     public void printSummary() {
-        // Print the total time for the ILS algorithm
-        System.out.println("Total Time for ILS: " + totalTimeForILS + "ms");
-        // Print the total time for the Tabu Search algorithm
-        System.out.println("Total Time for Tabu: " + totalTimeForTabu + "ms");
-        // Print the total number of PIs tested
-        System.out.println("Total PIs Tested: " + totalPIsTested / 2);
+        // Print the total time for each algorithm & the total number of PIs tested
+        System.out.println(totals().substring(1));
         // Loop through the summaries
         for (String summary : summaries) {
             // Print the summary to the console
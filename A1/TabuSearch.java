@@ -1,15 +1,18 @@
 // Tayla Orsmond u21467456
 // Tabu Search class to solve the bin packing problem
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.concurrent.atomic.AtomicLong;
 
 public class TabuSearch extends Solver {
     private ArrayList<ArrayList<ArrayList<Integer>>> tabuList;
     private Integer tabuListLength = 0;
     public TabuSearch() {
         super();
+        this.algorithm = "Tabu";
         this.tabuList = new ArrayList<ArrayList<ArrayList<Integer>>>();
     }
 
@@ -22,6 +25,10 @@ public class TabuSearch extends Solver {
         super.setData(data);
         this.tabuListLength = this.items.size();
     }
+
+    public String getParameters() {
+        return "tabuListLength=n";
+    }
     // Algorithm:
     // 1. Order the items in descending order.
     // 2. Pack the items in the bins using best fit OR better fit algo. 
@@ -51,21 +58,22 @@ public class TabuSearch extends Solver {
      * @return void
      */
     public void solve() {
-        AtomicLong start = new AtomicLong(System.currentTimeMillis());
-        // 1.
-        Collections.sort(this.items, Collections.reverseOrder());
-        // 2.
-        bestFitAll();
-        setBestBins();
-        this.best = this.bins.size(); //Initial best no. of bins
+        if (startSolve()) { // (skipped when resuming from a checkpoint)
+            // 1.
+            Collections.sort(this.items, Collections.reverseOrder());
+            // 2.
+            bestFitAll();
+            updateBest(); //Initial best no. of bins
+        }
         // 3.-6.
         Boolean repeat = false;
         Boolean repeatOverall = false;
         do{
+            checkpoint(); // Save the state of the search (if a checkpoint is due)
             repeatOverall = false;
             //Choose whether to pick a random bin or the least filled bin
             char picked;
-            if(Math.random() > 0.4){
+            if(this.rng.nextDouble() > 0.4){
                 picked = 'L'; //least-filled bin
             } else {
                 picked = 'R'; //random bin
@@ -76,6 +84,7 @@ public class TabuSearch extends Solver {
                 pickedBin = getBin(picked);
                 int PBSize = sizeOf(pickedBin);
                 tryEmptyBin(pickedBin);
+                this.iterations++;
                 //check if bins are in the tabu list
                 Boolean inList = false;
                 if (isTabu()) {
@@ -90,8 +99,7 @@ public class TabuSearch extends Solver {
                         pickedBin = -1;
                     }
                     if (this.bins.size() < this.best || (pickedBin != -1 && sizeOf(pickedBin) < PBSize) ) {
-                        setBestBins();
-                        this.best = this.bins.size(); //New no.of bins
+                        updateBest(); //New no.of bins
                         repeat = true;
                         repeatOverall = true;
                     } else {
@@ -108,9 +116,10 @@ public class TabuSearch extends Solver {
             do {
                 pickedBin = getBin(picked);
                 int PBSize = sizeOf(pickedBin);
-                int randomBin = (int)(Math.random() * this.bins.size());
+                int randomBin = (int)(this.rng.nextDouble() * this.bins.size());
                 int RBSize = sizeOf(randomBin);
                 trySwap(pickedBin, randomBin);
+                this.iterations++;
                 //check if bins are in the tabu list
                 Boolean inList = false;
                 if (isTabu()) {
@@ -130,8 +139,7 @@ public class TabuSearch extends Solver {
                         randomBin = -1;
                     }
                     if (this.bins.size() < this.best || (pickedBin != -1 && sizeOf(pickedBin) < PBSize) || (randomBin != -1 && sizeOf(randomBin) < RBSize) ) {
-                        setBestBins();
-                        this.best = this.bins.size(); //New no.of bins
+                        updateBest(); //New no.of bins
                         repeat = true;
                         repeatOverall = true;
                     } else {
@@ -143,8 +151,50 @@ public class TabuSearch extends Solver {
                     }
                 }
             } while(repeat);
-        } while(repeatOverall || Math.random() > 0.1);
-        this.time.set(System.currentTimeMillis() - start.get());
+        } while(repeatOverall || this.rng.nextDouble() > 0.1);
+        finishSolve();
+    }
+
+    /**
+     * Write the state of the search (incl. the tabu list) to a checkpoint
+     * @details Tabu entries that are the current bins themselves (not copies) are written as a flag, so they are restored as the same list
+     * @param out The stream to write to
+     * @return void
+     * @throws IOException
+     */
+    protected void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeInt(this.tabuList.size());
+        for (ArrayList<ArrayList<Integer>> tabu : this.tabuList) {
+            out.writeBoolean(tabu == this.bins);
+            if (tabu != this.bins) {
+                Checkpoint.writeBins(out, tabu);
+            }
+        }
+    }
+
+    /**
+     * Read the state of the search (incl. the tabu list) from a checkpoint
+     * @param in The stream to read from
+     * @return true if the checkpoint belongs to this algorithm & PI (and was loaded), false otherwise
+     * @throws IOException
+     */
+    protected boolean readState(DataInputStream in) throws IOException {
+        if (!super.readState(in)) {
+            return false;
+        }
+        this.tabuList.clear();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            if (in.readBoolean()) {
+                this.tabuList.add(this.bins);
+            } else {
+                ArrayList<ArrayList<Integer>> tabu = new ArrayList<ArrayList<Integer>>();
+                Checkpoint.readBins(in, tabu);
+                this.tabuList.add(tabu);
+            }
+        }
+        return true;
     }
 
     /**
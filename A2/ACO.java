@@ -1,9 +1,14 @@
 // Tayla Orsmond u21467456
 // Ant Colony Optimisation class to solve instances of the knapsack problem using an ant colony optimisation algorithm
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Random;
+import java.util.stream.IntStream;
 
 public class ACO extends Solver {
     private final int numAnts; // number of ants
@@ -14,16 +19,30 @@ public class ACO extends Solver {
     private final Double tau0; // initial pheromone value
     private final Double tauMax; // maximum pheromone value 
     private final Double tauMin; // minimum pheromone value
+    private final boolean parallel; // parallel colony: all the ants of an iteration build their solutions at the same time
 
-    private Double[] pheromones; // pheromone trails
-    private Double[] heuristics; // heuristic information
-    private Boolean[][] solutions; // solutions constructed by each ant
+    private double[] pheromones; // pheromone trails
+    private double[] heuristics; // heuristic information
+    private double[] heuristicsBeta; // heuristic^beta of each item (calculated once per instance)
+    private Genome[] solutions; // solutions constructed by each ant
     private Double[] fitnesses; // fitnesses of each solution
+    private double[] attractiveness; // pheromone^alpha * heuristic^beta of each item (recalculated only for the trails that change)
+    private RouletteTree wheel; // attractiveness of the items that can still be added (scratch for constructSolution)
+    private ThreadLocal<RouletteTree> wheels; // a wheel for each thread of the parallel colony
+    private double[] deposits; // pheromone deposited on each item by all the ants of an iteration (parallel colony)
 
-    // Constructor
+    // Constructors
     public ACO(){
+        this(5, false);
+    }
+
+    // Parallel colony (parallel = true): each iteration, the ants build their solutions at the same time on all the cores
+    // (against the pheromone trails at the start of the iteration, each with its own random number generator)
+    // and their pheromone deposits are added up and applied once at the end of the iteration
+    public ACO(int numAnts, boolean parallel){
         super();
-        this.numAnts = 5;
+        this.numAnts = numAnts;
+        this.parallel = parallel;
         this.numIterations = 60;
         this.alpha = 0.1;
         this.beta = 2.0;
@@ -38,77 +57,116 @@ public class ACO extends Solver {
         super.clear();
         this.pheromones = null;
         this.heuristics = null;
+        this.heuristicsBeta = null;
         this.solutions = null;
         this.fitnesses = null;
+        this.attractiveness = null;
+        this.wheel = null;
+        this.wheels = null;
+        this.deposits = null;
     }
 
-    public void setItems(ArrayList<String> data){
-        super.setItems(data);
-        this.pheromones = new Double[this.numItems];
-        this.heuristics = new Double[this.numItems];
-        this.solutions = new Boolean[this.numAnts][this.numItems];
+    public void setInstance(Instance instance){
+        super.setInstance(instance);
+        this.pheromones = new double[this.numItems];
+        this.heuristics = new double[this.numItems];
+        this.heuristicsBeta = new double[this.numItems];
+        this.solutions = new Genome[this.numAnts];
+        for (int i = 0; i < this.numAnts; i++){
+            this.solutions[i] = new Genome(this.instance);
+        }
         this.fitnesses = new Double[this.numAnts];
+        this.attractiveness = new double[this.numItems];
+        this.wheel = new RouletteTree(this.numItems);
+        int size = this.numItems;
+        this.wheels = ThreadLocal.withInitial(() -> new RouletteTree(size));
+        this.deposits = new double[this.numItems];
+    }
+
+    public String getParameters(){
+        return "numAnts=" + this.numAnts + ";numIterations=" + this.numIterations + ";alpha=" + this.alpha + ";beta=" + this.beta
+                + ";rho=" + this.rho + ";tau0=" + this.tau0 + ";tauMax=" + this.tauMax + ";tauMin=" + this.tauMin + ";parallel=" + this.parallel + ";initializer=" + this.initializer;
     }
 
     public void initialise(){
         // Initialise pheromones and heuristics
         for (int i = 0; i < this.numItems; i++){
             this.pheromones[i] = this.tau0;
-            this.heuristics[i] = this.items.get(i).getValue() / this.items.get(i).getWeight();
+            this.heuristics[i] = this.instance.ratios[i];
         }
+        this.calculateAttractiveness();
         // Initialise solutions
         for (int i = 0; i < this.numAnts; i++){
-            Arrays.fill(this.solutions[i], false);
+            this.solutions[i].clear();
         }
     }
 
-    // Check if ant is at capacity
-    public Double weight(int ant){
-        Double weight = 0.0;
-        for (int i = 0; i < this.numItems; i++){
-            if (this.solutions[ant][i]){
-                weight += this.items.get(i).getWeight();
-            }
+    // Weight of the ant's solution (kept up to date by the genome as items are added)
+    public double weight(int ant){
+        return this.solutions[ant].getWeight();
+    }
+
+    // Attractiveness (pheromone^alpha * heuristic^beta) of every item (after the trails & heuristics are initialised or loaded)
+    private void calculateAttractiveness(){
+        for (int j = 0; j < this.numItems; j++){
+            this.heuristicsBeta[j] = Math.pow(this.heuristics[j], this.beta);
+            this.attractiveness[j] = Math.pow(this.pheromones[j], this.alpha) * this.heuristicsBeta[j];
+        }
+    }
+
+    // Set a pheromone trail (within the bounds), recalculating the attractiveness of the item only if the trail changed
+    // Most trails stay at tauMin or tauMax, so Math.pow is rarely called
+    private void setPheromone(int i, double trail){
+        if (trail > this.tauMax){
+            trail = this.tauMax;
+        } else if (trail < this.tauMin){
+            trail = this.tauMin;
+        }
+        if (trail != this.pheromones[i]){
+            this.pheromones[i] = trail;
+            this.attractiveness[i] = Math.pow(trail, this.alpha) * this.heuristicsBeta[i];
         }
-        return weight;
     }
 
     // Construct a solution using pheromone trails and heuristic information
     public void constructSolution(int ant){
+        this.constructSolution(this.solutions[ant], this.rng, this.wheel);
+    }
+
+    // Construct a solution from the attractiveness of the items (only read, so several ants can be built at the same time)
+    // The items that can still be added are kept on a roulette wheel (sum tree), so choosing & removing an item is O(log n)
+    // Items that no longer fit are removed from the heaviest down as the remaining capacity shrinks, so building a solution is O(n log n)
+    private void constructSolution(Genome solution, Random rng, RouletteTree wheel){
+        double[] weights = this.instance.weights;
+        int[] byWeight = this.instance.byWeight;
         // Initialise solution
-        Arrays.fill(this.solutions[ant], false);
-        // Start at a random item
-        int randy = (int) (Math.random() * this.numItems);
-        this.solutions[ant][randy] = true;
+        solution.clear();
+        // Start at a random item (or one of the best ratio items, depending on the initializer)
+        int randy = this.initializer.startItem(this.instance, rng);
+        solution.set(randy, true);
+
+        // Probability of adding each item is proportional to its attractiveness
+        wheel.build(this.attractiveness);
+        wheel.set(randy, 0.0);
 
         // Add items to solution
-        for (int i = 0; i < this.numItems && this.weight(ant) < this.capacity; i++){
-            // (Re-)Calculate probability of adding item
-            Double[] probabilities = new Double[this.numItems];
-            Double sum = 0.0;
-            for (int j = 0; j < this.numItems; j++){
-                if (!this.solutions[ant][j] && this.weight(ant) + this.items.get(j).getWeight() <= this.capacity){
-                    probabilities[j] = Math.pow(this.pheromones[j], this.alpha) * Math.pow(this.heuristics[j], this.beta);
-                    sum += probabilities[j];
-                } else {
-                    probabilities[j] = 0.0;
-                }
+        int heaviest = 0; // next item (from the heaviest) that may still fit
+        for (int i = 0; i < this.numItems && solution.getWeight() < this.capacity; i++){
+            // Remove the items that no longer fit (the solution's weight is kept up to date by the genome)
+            double remaining = this.capacity - solution.getWeight();
+            while (heaviest < this.numItems && weights[byWeight[heaviest]] > remaining){
+                wheel.set(byWeight[heaviest], 0.0);
+                heaviest++;
             }
-            // Normalise probabilities
-            for (int j = 0; j < this.numItems && sum != 0; j++){
-                probabilities[j] /= sum;
+            // Stop if no item fits
+            if (wheel.total() <= 0.0){
+                break;
             }
             // Choose item to add
             // Using roulette wheel selection
-            Double rand = Math.random();
-            Double cumulative = 0.0;
-            for (int j = 0; j < this.numItems; j++){
-                cumulative += probabilities[j];
-                if (rand <= cumulative){
-                    this.solutions[ant][j] = true;
-                    break;
-                }
-            }
+            int j = wheel.sample(rng.nextDouble());
+            solution.set(j, true);
+            wheel.set(j, 0.0);
         }
     }
 
@@ -123,18 +181,39 @@ public class ACO extends Solver {
     public void updatePheromones(int ant){
         // Update pheromones
         for (int i = 0; i < this.numItems; i++){
-            if (this.solutions[ant][i]){
-                this.pheromones[i] = (1 - this.rho) * this.pheromones[i] + this.fitnesses[ant];
+            // Make sure pheromones are within bounds (setPheromone)
+            if (this.solutions[ant].get(i)){
+                this.setPheromone(i, (1 - this.rho) * this.pheromones[i] + this.fitnesses[ant]);
             } else {
-                this.pheromones[i] = (1 - this.rho) * this.pheromones[i];
+                this.setPheromone(i, (1 - this.rho) * this.pheromones[i]);
             }
-            // Make sure pheromones are within bounds
-            if (this.pheromones[i] > this.tauMax){
-                this.pheromones[i] = this.tauMax;
-            } else if (this.pheromones[i] < this.tauMin){
-                this.pheromones[i] = this.tauMin;
+        }
+    }
+
+    // Update the pheromone trails with the deposits of all the ants at once (parallel colony)
+    // Each trail evaporates once per iteration and gains the fitness of every solution that contains the item
+    public void depositPheromones(){
+        Arrays.fill(this.deposits, 0.0);
+        for (int ant = 0; ant < this.numAnts; ant++){
+            Genome solution = this.solutions[ant];
+            for (int i = solution.nextSetBit(0); i >= 0; i = solution.nextSetBit(i + 1)){
+                this.deposits[i] += this.fitnesses[ant];
             }
         }
+        for (int i = 0; i < this.numItems; i++){
+            // Make sure pheromones are within bounds (setPheromone)
+            this.setPheromone(i, (1 - this.rho) * this.pheromones[i] + this.deposits[i]);
+        }
+    }
+
+    // Build the solutions of all the ants at the same time (parallel colony)
+    // Each ant has its own random number generator, seeded in ant order, so the result does not depend on the no. of threads
+    private void constructSolutions(){
+        long[] seeds = new long[this.numAnts];
+        for (int j = 0; j < this.numAnts; j++){
+            seeds[j] = this.rng.nextLong();
+        }
+        IntStream.range(0, this.numAnts).parallel().forEach(j -> this.constructSolution(this.solutions[j], new Random(seeds[j]), this.wheels.get()));
     }
 
     // Update the pheromone trails globally
@@ -148,39 +227,108 @@ public class ACO extends Solver {
         }
         // Update pheromones
         for (int i = 0; i < this.numItems; i++){
-            if (this.solutions[best][i]){
-                this.pheromones[i] = (1 - this.rho) * this.pheromones[i] + this.fitnesses[best];
+            // Make sure pheromones are within bounds (setPheromone)
+            if (this.solutions[best].get(i)){
+                this.setPheromone(i, (1 - this.rho) * this.pheromones[i] + this.fitnesses[best]);
             } else {
-                this.pheromones[i] = (1 - this.rho) * this.pheromones[i];
-            }
-            // Make sure pheromones are within bounds
-            if (this.pheromones[i] < this.tauMin){
-                this.pheromones[i] = this.tauMin;
-            } else if (this.pheromones[i] > this.tauMax){
-                this.pheromones[i] = this.tauMax;
+                this.setPheromone(i, (1 - this.rho) * this.pheromones[i]);
             }
         }
     }
 
     // Solve the problem
     public void solve(){
-        // Start timer
-        this.time.set(System.currentTimeMillis());
-        
-        // Initialise
-        this.initialise();
+        // Start timer & initialise (skipped when resuming from a checkpoint)
+        if (startSolve()){
+            this.initialise();
+        }
 
         // Solve
-        for (int i = 0; i < this.numIterations; i++){
-            for (int j = 0; j < this.numAnts; j++){
-                this.constructSolution(j);
-                this.evaluateSolution(j);
-                this.updatePheromones(j);
+        for (int i = (int) this.iterations; i < this.numIterations && !terminated(); i++){
+            this.checkpoint();
+            this.iterations++;
+            if (this.parallel){
+                // Build all the solutions at once, then evaluate them & deposit pheromones in ant order
+                this.constructSolutions();
+                for (int j = 0; j < this.numAnts; j++){
+                    this.evaluateSolution(j);
+                }
+                this.depositPheromones();
+            } else {
+                for (int j = 0; j < this.numAnts; j++){
+                    this.constructSolution(j);
+                    this.evaluateSolution(j);
+                    this.updatePheromones(j);
+                }
             }
             this.updatePheromones();
+            this.sample();
         }
 
         // Stop timer
-        this.time.set(System.currentTimeMillis() - this.time.get());
+        this.finishSolve();
+    }
+
+    protected double diversity() {
+        return meanDistance(Arrays.asList(this.solutions));
+    }
+
+    protected double averageFitness() {
+        double total = 0.0;
+        for (Double fitness : this.fitnesses) {
+            if (fitness == null) {
+                return Double.NaN;
+            }
+            total += fitness;
+        }
+        return total / this.numAnts;
+    }
+
+    protected double entropy() {
+        double total = 0.0;
+        double weightedLogs = 0.0;
+        for (double trail : this.pheromones) {
+            total += trail;
+            weightedLogs += trail > 0 ? trail * Math.log(trail) : 0.0;
+        }
+        return Telemetry.entropy(total, weightedLogs, this.numItems);
+    }
+
+    // Checkpoint state: pheromone trails, heuristics, the ants' solutions & fitnesses and the best solution
+    protected void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        Checkpoint.writeDoubles(out, this.pheromones);
+        Checkpoint.writeDoubles(out, this.heuristics);
+        ArrayList<Genome> written = new ArrayList<>();
+        for (Genome solution : this.solutions){
+            Checkpoint.writeBits(out, solution);
+            written.add(solution);
+        }
+        for (Double fitness : this.fitnesses){
+            out.writeBoolean(fitness != null);
+            if (fitness != null){
+                out.writeDouble(fitness);
+            }
+        }
+        writeSolution(out, getBestSolution(), written);
+    }
+
+    protected boolean readState(DataInputStream in) throws IOException {
+        if (!super.readState(in)){
+            return false;
+        }
+        this.pheromones = Checkpoint.readDoubles(in);
+        this.heuristics = Checkpoint.readDoubles(in);
+        this.calculateAttractiveness();
+        ArrayList<Genome> read = new ArrayList<>();
+        for (int i = 0; i < this.numAnts; i++){
+            this.solutions[i] = Checkpoint.readBits(in, this.instance);
+            read.add(this.solutions[i]);
+        }
+        for (int i = 0; i < this.numAnts; i++){
+            this.fitnesses[i] = in.readBoolean() ? in.readDouble() : null;
+        }
+        setBestSolution(readSolution(in, read));
+        return true;
     }
 }
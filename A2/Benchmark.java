@@ -0,0 +1,197 @@
+// Tayla Orsmond u21467456
+// Benchmark program: solves every knapsack instance with N seeds (in parallel across the cores) using the GA and ACO
+// Reports the mean / min / max fitness, the success rate against the optima, the time-to-target distribution
+// and bootstrap confidence intervals (to tell a real improvement from seed noise)
+// The solvers are created by Main, so they run with the same settings (Main's solver options can be given after the base seed)
+// Usage: java Benchmark [no. of seeds] [base seed] [options]
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Benchmark {
+    private static final String[] algorithms = {"GA", "ACO"};
+    private static final int resamples = 1000; // no. of bootstrap resamples
+    private static final double confidence = 0.95; // confidence level of the intervals
+
+    public static void main(String[] args) {
+        int numSeeds = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        long baseSeed = args.length > 1 ? Long.parseLong(args[1]) : 2109626023L;
+        for (int i = 2; i < args.length; i++) {
+            if (!Main.configure(args[i])) {
+                System.out.println("[Benchmark] Unknown option: " + args[i]);
+            }
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.println("========== COS 314 - Assignment 2 - Benchmark (" + numSeeds + " seeds, " + threads + " threads) ==========");
+
+        Loader loader = new Loader();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        // Runs per "instance / algorithm" and per "dataset / algorithm" (in submission order)
+        LinkedHashMap<String, ArrayList<Future<Sample>>> runs = new LinkedHashMap<>();
+        try {
+            HashMap<String, Double> optima = loader.loadOptima("Optima.txt");
+            for (String instance : loader.loadDataset(Main.dataset)) {
+                ArrayList<String> data = loader.readFile(Main.dataset + "/" + instance + ".txt");
+                Double optimal = optima.get(instance);
+                for (String algorithm : algorithms) {
+                    ArrayList<Future<Sample>> samples = runs.computeIfAbsent(instance + " / " + algorithm, k -> new ArrayList<>());
+                    for (int s = 0; s < numSeeds; s++) {
+                        long seed = baseSeed + s;
+                        samples.add(pool.submit(() -> run(algorithm, instance, data, optimal, seed)));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            System.out.println("[Benchmark] Error loading instances: " + e);
+            e.printStackTrace();
+        }
+
+        // Collect the samples & summarize them per instance and per dataset
+        String report = "Benchmark of the GA and ACO: " + numSeeds + " seeds per instance (base seed " + baseSeed + ")";
+        LinkedHashMap<String, ArrayList<Sample>> perDataset = new LinkedHashMap<>();
+        try {
+            FileWriter records = new FileWriter("Solutions/benchmark.csv");
+            records.write(RunRecord.HEADER + "\n");
+            for (String key : runs.keySet()) {
+                ArrayList<Sample> samples = new ArrayList<>();
+                for (Future<Sample> future : runs.get(key)) {
+                    Sample sample = future.get();
+                    samples.add(sample);
+                    records.write(sample.record.toCSV() + "\n");
+                    perDataset.computeIfAbsent(Main.dataset + " / " + sample.record.getAlgorithm(), k -> new ArrayList<>()).add(sample);
+                }
+                report += "\n" + summarize(key, samples, new Random(baseSeed));
+            }
+            records.close();
+        } catch (Exception e) {
+            System.out.println("[Benchmark] Error running benchmark: " + e);
+            e.printStackTrace();
+        } finally {
+            pool.shutdown();
+        }
+        for (String key : perDataset.keySet()) {
+            report += "\n" + summarize(key, perDataset.get(key), new Random(baseSeed));
+        }
+
+        System.out.println(report);
+        try {
+            FileWriter writer = new FileWriter("Solutions/Benchmark_Report.txt");
+            writer.write(report);
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("[Benchmark] Error writing report: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    // One solve of an instance with one seed
+    private static class Sample {
+        private final RunRecord record;
+        private final long timeToBest; // ms until the best solution was found
+
+        private Sample(RunRecord record, long timeToBest) {
+            this.record = record;
+            this.timeToBest = timeToBest;
+        }
+
+        // Relative gap to the optimum (0 = optimal)
+        private double gap() {
+            if (record.isOptimal() || !(record.getOptimal() > 0)) {
+                return 0.0;
+            }
+            return (record.getOptimal() - record.getResult()) / record.getOptimal();
+        }
+    }
+
+    // Solve an instance with one seed (each run uses its own solver, so runs can execute in parallel)
+    private static Sample run(String algorithm, String instance, ArrayList<String> data, Double optimal, long seed) {
+        Solver solver = algorithm.equals("GA") ? Main.createGA() : Main.createACO();
+        solver.setDataset(Main.dataset);
+        solver.setInstanceName(instance);
+        solver.setOptimal(optimal);
+        solver.setItems(data);
+        solver.setSeed(seed);
+        solver.solve();
+        return new Sample(solver.getRecord(), solver.getTimeToBest());
+    }
+
+    // Summarize a group of samples
+    private static String summarize(String key, ArrayList<Sample> samples, Random rng) {
+        int n = samples.size();
+        double[] results = new double[n];
+        double[] gaps = new double[n];
+        double[] success = new double[n];
+        long[] times = new long[n];
+        ArrayList<Long> toTarget = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            Sample sample = samples.get(i);
+            results[i] = sample.record.getResult();
+            gaps[i] = sample.gap() * 100;
+            success[i] = sample.record.isOptimal() ? 1.0 : 0.0;
+            times[i] = sample.record.getTime();
+            if (sample.record.isOptimal()) {
+                toTarget.add(sample.timeToBest);
+            }
+        }
+        double[] resultCI = bootstrap(results, rng);
+        double[] gapCI = bootstrap(gaps, rng);
+        double[] successCI = bootstrap(success, rng);
+        long[] ttt = toTarget.stream().mapToLong(Long::longValue).sorted().toArray();
+        Arrays.sort(times);
+        Arrays.sort(results);
+        String ci = (int) (confidence * 100) + "% CI ";
+
+        String res = key + " [Runs: " + n + "]";
+        res += "\n\tFitness: mean " + round(mean(results)) + " (" + ci + round(resultCI[0]) + " - " + round(resultCI[1]) + ") min " + results[0] + " max " + results[n - 1];
+        res += "\n\tGap: mean " + round(mean(gaps)) + "% (" + ci + round(gapCI[0]) + "% - " + round(gapCI[1]) + "%)";
+        res += "\n\tSuccess rate: " + round(mean(success) * 100) + "% (" + ci + round(successCI[0] * 100) + "% - " + round(successCI[1] * 100) + "%)";
+        res += "\n\tTime: P50 " + percentile(times, 50) + "ms P95 " + percentile(times, 95) + "ms Max " + percentile(times, 100) + "ms";
+        if (ttt.length > 0) {
+            res += "\n\tTime to target (" + ttt.length + " runs): P10 " + percentile(ttt, 10) + "ms P50 " + percentile(ttt, 50) + "ms P90 " + percentile(ttt, 90) + "ms Max " + percentile(ttt, 100) + "ms";
+        } else {
+            res += "\n\tTime to target: never reached";
+        }
+        return res;
+    }
+
+    // Percentile bootstrap confidence interval of the mean
+    private static double[] bootstrap(double[] values, Random rng) {
+        double[] means = new double[resamples];
+        for (int b = 0; b < resamples; b++) {
+            double sum = 0;
+            for (int i = 0; i < values.length; i++) {
+                sum += values[rng.nextInt(values.length)];
+            }
+            means[b] = sum / values.length;
+        }
+        Arrays.sort(means);
+        double alpha = (1 - confidence) / 2;
+        return new double[] {means[(int) (alpha * (resamples - 1))], means[(int) Math.ceil((1 - alpha) * (resamples - 1))]};
+    }
+
+    private static double mean(double[] values) {
+        double sum = 0;
+        for (double v : values) {
+            sum += v;
+        }
+        return sum / values.length;
+    }
+
+    // Nearest-rank percentile (values must be sorted)
+    private static long percentile(long[] values, double p) {
+        int rank = (int) Math.ceil(p / 100.0 * values.length);
+        return values[Math.max(rank, 1) - 1];
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,222 @@
+// Tayla Orsmond u21467456
+// BranchBound class to solve instances of the knapsack problem exactly with a depth first branch & bound (any weights, unlike the DP array)
+// The items are searched from the best to the worst value / weight ratio: each item is taken if it fits, then left out on backtracking
+// A branch is cut off when its upper bound cannot beat the incumbent: the Martello-Toth U2 bound (at most the LP / Dantzig bound),
+// found in O(log n) from prefix sums of the weights & values in ratio order
+// The incumbent starts as the greedy solution, or a better solution given by setIncumbent (e.g., the best solution of a GA run)
+// With a core size, only that many items around the break item are searched (the better ratios are taken, the worse ones left out),
+// which is much faster on large instances but not exact
+
+public class BranchBound extends Solver {
+    private static final double tolerance = 1e-9; // relative improvement below which two solutions are considered equal
+    private final long budget; // ms (0 = no limit)
+    private final int coreSize; // no. of items searched around the break item (0 = all the items)
+    private long deadline;
+    private boolean exact; // the last solve searched every item & finished, so the best solution is optimal
+    private Genome incumbent; // starting solution (optional)
+
+    // Signals that the time budget ran out
+    private static class OutOfTime extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private OutOfTime() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Constructors
+    public BranchBound() {
+        this(60000, 0);
+    }
+
+    public BranchBound(long budget, int coreSize) {
+        super();
+        this.budget = budget;
+        this.coreSize = coreSize;
+    }
+
+    // Helpers
+    public void clear() {
+        super.clear();
+        this.exact = false;
+        this.incumbent = null;
+    }
+
+    public String getParameters() {
+        return "budget=" + this.budget + ";core=" + this.coreSize;
+    }
+
+    public boolean isExact() {
+        return this.exact;
+    }
+
+    // Start the search from the given solution (of the same items, e.g., from another solver), if it is better than the greedy solution
+    // Must be called after the instance is loaded
+    public void setIncumbent(Genome solution) {
+        this.incumbent = new Genome(this.instance);
+        for (int i = solution.nextSetBit(0); i >= 0; i = solution.nextSetBit(i + 1)) {
+            this.incumbent.set(i, true);
+        }
+    }
+
+    // Method
+    public void solve() {
+        // Start timer (not checkpointed: a resumed solve starts over)
+        startSolve();
+        this.deadline = this.budget > 0 ? System.currentTimeMillis() + this.budget : Long.MAX_VALUE;
+        this.exact = false;
+        int[] order = this.instance.order;
+
+        // Greedy solution & the given incumbent first, so there is a result if the time runs out
+        Genome greedy = new Genome(this.instance);
+        for (int i : order) {
+            if (greedy.getWeight() + this.instance.weights[i] <= this.capacity) {
+                greedy.set(i, true);
+            }
+        }
+        calculateFitness(greedy);
+        if (this.incumbent != null) {
+            calculateFitness(this.incumbent);
+        }
+
+        // Break item: the first item (in ratio order) that does not fit when the better items are all taken
+        int breakItem = 0;
+        double breakWeight = 0.0;
+        while (breakItem < this.numItems && breakWeight + this.instance.weights[order[breakItem]] <= this.capacity) {
+            breakWeight += this.instance.weights[order[breakItem]];
+            breakItem++;
+        }
+        // Core: the items searched (in ratio order), the items before it are taken & the items after it are left out
+        int first = 0;
+        int last = this.numItems;
+        if (this.coreSize > 0 && this.coreSize < this.numItems) {
+            first = Math.max(0, Math.min(breakItem - this.coreSize / 2, this.numItems - this.coreSize));
+            last = first + this.coreSize;
+        }
+        double fixedWeight = 0.0;
+        double fixedValue = 0.0;
+        for (int k = 0; k < first; k++) {
+            fixedWeight += this.instance.weights[order[k]];
+            fixedValue += this.instance.values[order[k]];
+        }
+
+        try {
+            int[] items = search(first, last, this.capacity - fixedWeight, getBestFitness() - this.instance.offset - fixedValue);
+            if (items != null) {
+                Genome solution = new Genome(this.instance);
+                for (int k = 0; k < first; k++) {
+                    solution.set(order[k], true);
+                }
+                for (int k : items) {
+                    solution.set(order[k], true);
+                }
+                calculateFitness(solution);
+            }
+            this.exact = first == 0 && last == this.numItems;
+        } catch (OutOfTime e) {
+            this.stopReason = Termination.Reason.TIME_LIMIT;
+            System.out.println("[BranchBound] Time budget of " + this.budget + "ms ran out on " + this.instanceName + ", keeping the best solution found");
+        }
+
+        // Stop timer
+        finishSolve();
+    }
+
+    // Depth first search over the items order[first..last) with the given capacity for a solution worth more than the given value
+    // Returns the positions (in ratio order) of the items in the best solution found, or null if none is better
+    private int[] search(int first, int last, double capacity, double value) {
+        int[] order = this.instance.order;
+        int m = last - first;
+        double[] p = new double[m];
+        double[] w = new double[m];
+        // Prefix sums: items j..s-1 weigh sumW[s] - sumW[j] & are worth sumP[s] - sumP[j]
+        double[] sumW = new double[m + 1];
+        double[] sumP = new double[m + 1];
+        boolean integral = true; // whole number values: a solution must be worth at least 1 more, so the bound is rounded down
+        for (int j = 0; j < m; j++) {
+            p[j] = this.instance.values[order[first + j]];
+            w[j] = this.instance.weights[order[first + j]];
+            sumW[j + 1] = sumW[j] + w[j];
+            sumP[j + 1] = sumP[j] + p[j];
+            integral &= p[j] == Math.rint(p[j]);
+        }
+
+        double eps = tolerance * Math.max(1.0, Math.abs(getBestFitness()));
+        double best = value;
+        int[] bestItems = null;
+        // Items taken so far (a stack, so backtracking undoes the last one) & the weight / value after taking each
+        int[] taken = new int[m];
+        double[] takenWeight = new double[m + 1];
+        double[] takenValue = new double[m + 1];
+        int top = 0;
+        int j = 0;
+        while (true) {
+            if ((++this.iterations & 4095) == 0) {
+                checkTime();
+            }
+            double residual = capacity - takenWeight[top];
+            double upper = j < m ? takenValue[top] + bound(p, w, sumW, sumP, j, residual) : 0.0;
+            if (integral) {
+                upper = Math.floor(upper + eps);
+            }
+            if (j < m && upper > best + eps) {
+                // Branch: take item j if it fits (leaving it out is tried on backtracking)
+                if (w[j] <= residual) {
+                    taken[top] = j;
+                    takenWeight[top + 1] = takenWeight[top] + w[j];
+                    takenValue[top + 1] = takenValue[top] + p[j];
+                    top++;
+                    if (takenValue[top] > best + eps) {
+                        best = takenValue[top];
+                        bestItems = new int[top];
+                        for (int k = 0; k < top; k++) {
+                            bestItems[k] = first + taken[k];
+                        }
+                    }
+                }
+                j++;
+                continue;
+            }
+            // Cut off (or all the items decided): backtrack to the last item taken & leave it out instead
+            if (top == 0) {
+                break;
+            }
+            top--;
+            j = taken[top] + 1;
+        }
+        return bestItems;
+    }
+
+    // Martello-Toth U2 upper bound on the value of the items j..m-1 with the given capacity
+    // Items j..s-1 fit (s is the break item): either s is left out & the rest of the capacity is filled at the ratio of item s + 1 (U0),
+    // or s is taken & the weight over the capacity is removed at the ratio of item s - 1 (U1)
+    private static double bound(double[] p, double[] w, double[] sumW, double[] sumP, int j, double capacity) {
+        // Largest s with sumW[s] - sumW[j] <= capacity (binary search)
+        double limit = sumW[j] + capacity;
+        int lo = j;
+        int hi = p.length;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (sumW[mid] <= limit) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int s = lo;
+        if (s == p.length) {
+            return sumP[s] - sumP[j];
+        }
+        double value = sumP[s] - sumP[j];
+        double residual = capacity - (sumW[s] - sumW[j]);
+        double u0 = value + (s + 1 < p.length ? residual * p[s + 1] / w[s + 1] : 0.0);
+        double u1 = s > j ? value + p[s] - (w[s] - residual) * p[s - 1] / w[s - 1] : 0.0;
+        return Math.max(u0, u1);
+    }
+
+    private void checkTime() {
+        if (System.currentTimeMillis() > this.deadline) {
+            throw new OutOfTime();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+// Tayla Orsmond u21467456
+// Checkpoint class saves & loads the state of a running solver in a compact binary format
+// so that a long solve that is interrupted can be resumed (instead of starting from scratch)
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+public class Checkpoint {
+    // The first bytes of every checkpoint file ("KPCK") and the version of the format
+    private static final int MAGIC = 0x4B50434B;
+    private static final int VERSION = 6;
+
+    /**
+     * Save the state of a solver
+     * @details Writes to a temporary file and renames it, so an interruption while saving never leaves a broken checkpoint
+     * @param path The path to the checkpoint file
+     * @param solver The solver to save
+     * @return void
+     * @throws IOException
+     */
+    public static void save(String path, Solver solver) throws IOException {
+        File tmp = new File(path + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        solver.writeState(out);
+        out.close();
+        Files.move(tmp.toPath(), new File(path).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Load the state of a solver
+     * @param path The path to the checkpoint file
+     * @param solver The solver to load into (with the same instance loaded)
+     * @return true if the state was loaded, false if there is no (matching) checkpoint
+     * @throws IOException
+     */
+    public static boolean load(String path, Solver solver) throws IOException {
+        File file = new File(path);
+        if (!file.exists()) {
+            return false;
+        }
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        try {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            return solver.readState(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Delete a checkpoint (once the solve it belongs to has finished)
+     * @param path The path to the checkpoint file
+     * @return void
+     */
+    public static void delete(String path) {
+        new File(path).delete();
+    }
+
+    /**
+     * Write the state of a random number generator
+     * @param out The stream to write to
+     * @param rng The random number generator
+     * @return void
+     * @throws IOException
+     */
+    public static void writeRandom(DataOutputStream out, Random rng) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream objects = new ObjectOutputStream(bytes);
+        objects.writeObject(rng);
+        objects.close();
+        out.writeInt(bytes.size());
+        out.write(bytes.toByteArray());
+    }
+
+    /**
+     * Read the state of a random number generator
+     * @param in The stream to read from
+     * @return The random number generator (in the same state as when it was written)
+     * @throws IOException
+     */
+    public static Random readRandom(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try {
+            ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(bytes));
+            return (Random) objects.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException("[Checkpoint] Invalid random number generator state", e);
+        }
+    }
+
+    /**
+     * Write a solution (the words of the genome, 64 items per long, its total value & weight and its fitness)
+     * @param out The stream to write to
+     * @param solution The solution
+     * @return void
+     * @throws IOException
+     */
+    public static void writeBits(DataOutputStream out, Genome solution) throws IOException {
+        out.writeInt(solution.size());
+        for (long word : solution.getWords()) {
+            out.writeLong(word);
+        }
+        out.writeDouble(solution.getValue());
+        out.writeDouble(solution.getWeight());
+        out.writeDouble(solution.getFitness());
+    }
+
+    /**
+     * Read a solution written by writeBits
+     * @param in The stream to read from
+     * @param instance The instance the solution belongs to
+     * @return The solution
+     * @throws IOException
+     */
+    public static Genome readBits(DataInputStream in, Instance instance) throws IOException {
+        Genome solution = new Genome(instance);
+        if (in.readInt() != instance.numItems) {
+            throw new IOException("[Checkpoint] Solution does not match the instance");
+        }
+        long[] words = new long[solution.getWords().length];
+        for (int i = 0; i < words.length; i++) {
+            words[i] = in.readLong();
+        }
+        solution.load(words, in.readDouble(), in.readDouble(), in.readDouble());
+        return solution;
+    }
+
+    /**
+     * Write an array of doubles
+     * @param out The stream to write to
+     * @param values The values
+     * @return void
+     * @throws IOException
+     */
+    public static void writeDoubles(DataOutputStream out, double[] values) throws IOException {
+        out.writeInt(values.length);
+        for (double value : values) {
+            out.writeDouble(value);
+        }
+    }
+
+    /**
+     * Write an array of ints
+     * @param out The stream to write to
+     * @param values The values
+     * @return void
+     * @throws IOException
+     */
+    public static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Read an array of ints written by writeInts
+     * @param in The stream to read from
+     * @return The values
+     * @throws IOException
+     */
+    public static int[] readInts(DataInputStream in) throws IOException {
+        int[] values = new int[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    /**
+     * Read an array of doubles written by writeDoubles
+     * @param in The stream to read from
+     * @return The values
+     * @throws IOException
+     */
+    public static double[] readDoubles(DataInputStream in) throws IOException {
+        double[] values = new double[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readDouble();
+        }
+        return values;
+    }
+}
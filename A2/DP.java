@@ -0,0 +1,234 @@
+// Tayla Orsmond u21467456
+// Dynamic Programming class to solve instances of the knapsack problem exactly (to verify the GA & ACO against)
+// Integral weights: a rolling array over the capacity (the best value for every weight limit), O(n x capacity) time & O(capacity) memory
+// Other weights: a sparse list of the Pareto optimal (weight, value) states (Nemhauser-Ullmann), small when few sums of weights are useful
+// The items are found by divide & conquer (Hirschberg): the best values of each half of the items are combined to find how the capacity
+// is split between the halves, then each half is solved with its share, so no n x capacity table is kept
+// If the time budget runs out, the greedy solution (best value / weight ratio first) is kept and the result is not exact
+
+import java.util.Arrays;
+
+public class DP extends Solver {
+    private static final int maxCapacity = 1 << 24; // largest capacity solved with the array (2 arrays of 16M doubles = 256MB)
+    private static final double tolerance = 1e-9; // relative rounding error allowed when the halves are solved again (Pareto)
+    private final long budget; // ms (0 = no limit)
+    private long deadline;
+    private boolean exact; // the last solve finished, so the best solution is optimal
+
+    // Signals that the time budget ran out (unwinds the divide & conquer)
+    private static class OutOfTime extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private OutOfTime() {
+            super(null, null, false, false);
+        }
+    }
+
+    // Constructors
+    public DP() {
+        this(60000);
+    }
+
+    public DP(long budget) {
+        super();
+        this.budget = budget;
+    }
+
+    // Helpers
+    public void clear() {
+        super.clear();
+        this.exact = false;
+    }
+
+    public String getParameters() {
+        return "budget=" + this.budget;
+    }
+
+    public boolean isExact() {
+        return this.exact;
+    }
+
+    // Method
+    public void solve() {
+        // Start timer (not checkpointed: a resumed solve starts over)
+        startSolve();
+        this.deadline = this.budget > 0 ? System.currentTimeMillis() + this.budget : Long.MAX_VALUE;
+        this.exact = false;
+
+        // Greedy solution first, so there is a result if the time runs out
+        Genome greedy = new Genome(this.instance);
+        for (int i : this.instance.order) {
+            if (greedy.getWeight() + this.instance.weights[i] <= this.capacity) {
+                greedy.set(i, true);
+            }
+        }
+        calculateFitness(greedy);
+
+        try {
+            Genome solution = new Genome(this.instance);
+            if (integralWeights()) {
+                solveArray(0, this.numItems, (int) this.capacity, solution);
+            } else {
+                solvePareto(0, this.numItems, this.capacity, solution);
+            }
+            calculateFitness(solution);
+            this.exact = solution.getWeight() <= this.capacity;
+        } catch (OutOfTime e) {
+            this.stopReason = Termination.Reason.TIME_LIMIT;
+            System.out.println("[DP] Time budget of " + this.budget + "ms ran out on " + this.instanceName + ", keeping the greedy solution");
+        }
+
+        // Stop timer
+        finishSolve();
+    }
+
+    // Check if all the weights & the capacity are whole numbers and the capacity is small enough for the array
+    private boolean integralWeights() {
+        if (this.capacity > maxCapacity || this.capacity != Math.rint(this.capacity)) {
+            return false;
+        }
+        for (double weight : this.instance.weights) {
+            if (weight != Math.rint(weight) || weight < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void checkTime() {
+        if (System.currentTimeMillis() > this.deadline) {
+            throw new OutOfTime();
+        }
+    }
+
+    // Best value of the items [lo, hi) for every weight limit 0..capacity (rolling array, one pass per item)
+    private double[] table(int lo, int hi, int capacity) {
+        double[] values = this.instance.values;
+        double[] weights = this.instance.weights;
+        double[] best = new double[capacity + 1];
+        for (int i = lo; i < hi; i++) {
+            checkTime();
+            this.iterations++;
+            int w = (int) weights[i];
+            double v = values[i];
+            for (int c = capacity; c >= w; c--) {
+                if (best[c - w] + v > best[c]) {
+                    best[c] = best[c - w] + v;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Add the items of [lo, hi) in an optimal solution with the given capacity to the solution (integral weights)
+    private void solveArray(int lo, int hi, int capacity, Genome solution) {
+        if (hi - lo <= 0) {
+            return; // no items
+        }
+        if (hi - lo == 1) {
+            if (this.instance.weights[lo] <= capacity && this.instance.values[lo] > 0) {
+                solution.set(lo, true);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double[] first = table(lo, mid, capacity);
+        double[] second = table(mid, hi, capacity);
+        // Split the capacity where the two halves together are worth the most
+        int split = 0;
+        double best = -1.0;
+        for (int c = 0; c <= capacity; c++) {
+            if (first[c] + second[capacity - c] > best) {
+                best = first[c] + second[capacity - c];
+                split = c;
+            }
+        }
+        first = null;
+        second = null;
+        solveArray(lo, mid, split, solution);
+        solveArray(mid, hi, capacity - split, solution);
+    }
+
+    // Pareto optimal states of the items [lo, hi): weights[k] increasing & values[k] increasing (no state is lighter and worth more)
+    // Returns {weights, values} of the states with a weight within the capacity
+    private double[][] front(int lo, int hi, double capacity) {
+        double[] itemValues = this.instance.values;
+        double[] itemWeights = this.instance.weights;
+        double[] weights = {0.0};
+        double[] values = {0.0};
+        for (int i = lo; i < hi; i++) {
+            checkTime();
+            this.iterations++;
+            double w = itemWeights[i];
+            double v = itemValues[i];
+            int size = weights.length;
+            double[] newWeights = new double[2 * size];
+            double[] newValues = new double[2 * size];
+            int count = 0;
+            // Merge the states without item i (a) & with item i (b) by weight, dropping dominated states
+            int a = 0;
+            int b = 0;
+            while (a < size || (b < size && weights[b] + w <= capacity)) {
+                double stateWeight;
+                double stateValue;
+                if (b >= size || weights[b] + w > capacity || (a < size && weights[a] <= weights[b] + w)) {
+                    stateWeight = weights[a];
+                    stateValue = values[a];
+                    a++;
+                } else {
+                    stateWeight = weights[b] + w;
+                    stateValue = values[b] + v;
+                    b++;
+                }
+                if (count == 0 || stateValue > newValues[count - 1]) {
+                    if (count > 0 && stateWeight == newWeights[count - 1]) {
+                        count--; // same weight, worth more
+                    }
+                    newWeights[count] = stateWeight;
+                    newValues[count] = stateValue;
+                    count++;
+                }
+            }
+            weights = Arrays.copyOf(newWeights, count);
+            values = Arrays.copyOf(newValues, count);
+        }
+        return new double[][] {weights, values};
+    }
+
+    // Add the items of [lo, hi) in an optimal solution with the given capacity to the solution (any weights)
+    private void solvePareto(int lo, int hi, double capacity, Genome solution) {
+        if (hi - lo <= 0) {
+            return; // no items
+        }
+        if (hi - lo == 1) {
+            if (this.instance.weights[lo] <= capacity && this.instance.values[lo] > 0) {
+                solution.set(lo, true);
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double[][] first = front(lo, mid, capacity);
+        double[][] second = front(mid, hi, capacity);
+        // Pair every state of the first half with the heaviest (most valuable) state of the second half that still fits
+        // The weights of the first half increase, so the state of the second half only moves down
+        double split = 0.0;
+        double best = -1.0;
+        int k = second[0].length - 1;
+        for (int j = 0; j < first[0].length; j++) {
+            while (k > 0 && first[0][j] + second[0][k] > capacity) {
+                k--;
+            }
+            if (first[0][j] + second[0][k] <= capacity && first[1][j] + second[1][k] > best) {
+                best = first[1][j] + second[1][k];
+                split = first[0][j];
+            }
+        }
+        // The first half gets the weight of its state, the second half the rest
+        // Each half adds its weights up in a different order than here, so its share allows for a rounding error
+        double slack = tolerance * Math.max(1.0, this.capacity);
+        first = null;
+        second = null;
+        solvePareto(lo, mid, split + slack, solution);
+        solvePareto(mid, hi, capacity - split + slack, solution);
+    }
+}
@@ -1,200 +1,482 @@
 //Tayla Orsmond u21467456
 //Genetic Algorithm class to solve instances of the knapsack problem using a genetic algorithm
+//Generational by default; in steady state mode each pair of children replaces the worst individuals in place (in preallocated genomes)
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.ArrayList;
 
 public class GA extends Solver {
-    private ArrayList<Boolean[]> population;
-    private ArrayList<Double> fitnesses;
+    private ArrayList<Genome> population;
+    private double[] fitnesses; // fitness of each individual of the population (unboxed, so replacing an individual allocates nothing)
     private final Double crossoverRate;
     private final Double mutationRate;
     private int populationSize;
     private int numGenerations;
     private final int numElite;
     private final int tournamentSize;
+    private final boolean repair; // repair overweight children (instead of a fitness of 0) & fill them greedily
+    private final boolean steadyState; // children replace the worst individuals one at a time instead of a whole new generation
+    private Genome[] spares; // genomes the children are made in (steady state), swapped with the individuals they replace
+    private int[] heap; // population indices as a min-heap by fitness, so the worst individual is heap[0] (steady state)
+    private int[] heapIndex; // position of each individual in the heap
+    private LocalSearch localSearch; // memetic stage: improves a share of the children (null = off)
 
     // Constructors
     public GA() {
+        this(true);
+    }
+
+    public GA(boolean repair) {
+        this(repair, false);
+    }
+
+    public GA(boolean repair, boolean steadyState) {
         super();
         this.population = new ArrayList<>();
-        this.fitnesses = new ArrayList<>();
+        this.fitnesses = new double[0];
         this.crossoverRate = 0.8; //start at 0.7, 0.8 = mixed but generally good, 0.9 = ~ 8 optimal,0.6 = ~ 8-9 optimal
         this.mutationRate = 0.6; //start 0.3, 0.4 & 0.5 = ~ 7-8 optimal, 0.6-0.9 = ~7-9 opt
         this.numElite = 1;
         this.tournamentSize = 2;
+        this.repair = repair;
+        this.steadyState = steadyState;
     }
     
     // Helpers
     public void clear(){
         super.clear();
         this.population.clear();
-        this.fitnesses.clear();
+        this.fitnesses = new double[0];
+        this.spares = null;
+        this.heap = null;
+        this.heapIndex = null;
+    }
+
+    public void setInstance(Instance instance) {
+        super.setInstance(instance);
+        this.populationSize = this.numItems * 3; // * 2 & 3 ~ 9 opts, 4 = consistently 9 and closer to optimal *5 = no difference just longer
+        this.numGenerations = 10 * this.numItems;
+    }
+
+    // Override the population size set by setInstance (e.g., for the islands of an IslandGA)
+    public void setPopulationSize(int populationSize) {
+        this.populationSize = populationSize;
     }
 
-    public void setItems(ArrayList<String> data) {
-        super.setItems(data);
-        this.populationSize = items.size() * 3; // * 2 & 3 ~ 9 opts, 4 = consistently 9 and closer to optimal *5 = no difference just longer
-        this.numGenerations = 10 * items.size();
+    public void setLocalSearch(LocalSearch localSearch) {
+        this.localSearch = localSearch;
     }
 
-    // Create population of random individuals
+    public int getNumGenerations() {
+        return this.numGenerations;
+    }
+
+    public String getParameters() {
+        return "crossoverRate=" + this.crossoverRate + ";mutationRate=" + this.mutationRate + ";numElite=" + this.numElite + ";tournamentSize=" + this.tournamentSize + ";repair=" + this.repair + ";steadyState=" + this.steadyState + ";initializer=" + this.initializer
+                + (this.localSearch == null ? "" : ";localSearch=" + this.localSearch);
+    }
+
+    // Create population of individuals (random by default, see Initializer)
     private void createPopulation() {
         for (int i = 0; i < this.populationSize; i++) {
-            Boolean[] individual = createRandomIndividual();
+            Genome individual = createIndividual();
+            if (this.repair) {
+                repair(individual);
+            }
             this.population.add(individual);
         }
     }
 
     //Calculate fitness of all individuals
     private void calculateFitnesses() {
-        this.fitnesses.clear();
-        Double fitness;
-        for (Boolean[] individual : this.population) {
-            fitness = calculateFitness(individual);
-            this.fitnesses.add(fitness);
-        }     
+        evaluateAll(this.population);
+        this.fitnesses = new double[this.population.size()];
+        for (int i = 0; i < this.population.size(); i++) {
+            this.fitnesses[i] = calculateFitness(this.population.get(i));
+        }
     }
 
-    // Calculate average fitness of population
-    private Double calculateAverageFitness(ArrayList<Boolean[]> population) {
-        Double totalFitness = 0.0;
-        for (Boolean[] individual : population) {
-            totalFitness += calculateFitness(individual);
+    // Calculate average fitness of population (and keep each individual's fitness in fitnesses, if given)
+    // Individuals that have not changed since they were evaluated are not evaluated again
+    private double calculateAverageFitness(ArrayList<Genome> population, double[] fitnesses) {
+        evaluateAll(population);
+        double totalFitness = 0.0;
+        for (int i = 0; i < population.size(); i++) {
+            double fitness = calculateFitness(population.get(i));
+            if (fitnesses != null) {
+                fitnesses[i] = fitness;
+            }
+            totalFitness += fitness;
         }
         return totalFitness / population.size();
     }
 
     // Select parent for reproduction
     // Use tournament selection
-    private Boolean[] selectParent() {
-        // Create tournament
-        ArrayList<Boolean[]> tournament = new ArrayList<>();
-        ArrayList<Double> tournamentFitnesses = new ArrayList<>();
-        for (int i = 0; i < this.tournamentSize; i++) {
-            int randomIndex = (int) (Math.random() * this.population.size());
-            tournament.add(this.population.get(randomIndex));
-            tournamentFitnesses.add(this.fitnesses.get(randomIndex));
-        }
+    private Genome selectParent() {
+        return this.population.get(selectIndex());
+    }
 
-        // Select fittest individual from tournament
-        int bestIndex = 0;
-        for (int i = 0; i < tournamentFitnesses.size(); i++) {
-            if (tournamentFitnesses.get(i) > tournamentFitnesses.get(bestIndex)) {
-                bestIndex = i;
+    // Index of the fittest of tournamentSize random individuals (the first one drawn wins ties)
+    private int selectIndex() {
+        int bestIndex = -1;
+        for (int i = 0; i < this.tournamentSize; i++) {
+            int randomIndex = (int) (this.rng.nextDouble() * this.population.size());
+            if (bestIndex < 0 || this.fitnesses[randomIndex] > this.fitnesses[bestIndex]) {
+                bestIndex = randomIndex;
             }
         }
-        return tournament.get(bestIndex);
+        return bestIndex;
     }
 
     // Crossover parents
-    private ArrayList<Boolean[]> crossover(Boolean[] parent1, Boolean[] parent2) {
+    private ArrayList<Genome> crossover(Genome parent1, Genome parent2) {
         // Create children
-        Boolean[] child1 = new Boolean[this.numItems];
-        Boolean[] child2 = new Boolean[this.numItems];
+        Genome child1 = new Genome(this.instance);
+        Genome child2 = new Genome(this.instance);
 
         // Select crossover point
-        int crossoverPoint = (int) (Math.random() * this.numItems);
+        int crossoverPoint = (int) (this.rng.nextDouble() * this.numItems);
 
-        // Swap genes
-        for (int i = 0; i < this.numItems; i++) {
-            if (i < crossoverPoint) {
-                child1[i] = parent1[i];
-                child2[i] = parent2[i];
-            } else {
-                child1[i] = parent2[i];
-                child2[i] = parent1[i];
-            }
-        }
+        // Swap genes (a word at a time, only the word with the crossover point is masked)
+        // The children's value & weight are updated from the shorter side of the crossover point
+        Genome.crossover(parent1, parent2, crossoverPoint, child1, child2);
 
         // Return children
-        ArrayList<Boolean[]> children = new ArrayList<>();
+        ArrayList<Genome> children = new ArrayList<>();
         children.add(child1);
         children.add(child2);
         return children;
     }
 
     // Mutate child
-    private void mutate(Boolean[] child) {
+    private void mutate(Genome child) {
         // Select gene to mutate
-        int geneIndex = (int) (Math.random() * this.numItems);
+        int geneIndex = (int) (this.rng.nextDouble() * this.numItems);
 
-        // Mutate gene
-        child[geneIndex] = !child[geneIndex];
+        // Mutate gene (O(1) update of the child's value & weight)
+        child.flip(geneIndex);
     }
 
-    // Method
-    public void solve(){
-        // Start timer
-        this.time.set(System.currentTimeMillis());
+    // Memetic stage: improve a share of the children that changed with local search (before they are evaluated)
+    private void improve(Genome child) {
+        if (this.localSearch != null && !child.isEvaluated() && this.rng.nextDouble() < this.localSearch.getShare()) {
+            this.localSearch.improve(child, this.instance, this.rng);
+        }
+    }
 
-        // Create initial population
+    // Create the initial population & calculate the fitness of all individuals
+    public void init() {
         createPopulation();
-
-        // Calculate fitness of all individuals
         calculateFitnesses();
+        if (this.steadyState) {
+            createHeap();
+        }
+    }
 
-        // Loop through generations
-        for (int i = 0; i < this.numGenerations; i++) {
-            // Select fitter individuals for reproduction
-            ArrayList<Boolean[]> newPopulation = new ArrayList<>();
-
-            // Add elite individuals to new population
-            for (int j = 0; j < this.numElite; j++) {
-                //find the best individual
-                int bestIndex = 0;
-                for (int k = 0; k < this.fitnesses.size(); k++) {
-                    if (this.fitnesses.get(k) > this.fitnesses.get(bestIndex) && !newPopulation.contains(this.population.get(k))) {
-                        bestIndex = k;
-                    }
+    // Run one generation: elitism, selection, crossover & mutation, then generational replacement if the new population is fitter
+    public void step() {
+        if (this.steadyState) {
+            stepSteadyState();
+            return;
+        }
+        this.iterations++;
+        // Select fitter individuals for reproduction
+        ArrayList<Genome> newPopulation = new ArrayList<>();
+
+        // Add elite individuals to new population
+        for (int j = 0; j < this.numElite; j++) {
+            //find the best individual
+            int bestIndex = 0;
+            for (int k = 0; k < this.fitnesses.length; k++) {
+                if (this.fitnesses[k] > this.fitnesses[bestIndex] && !newPopulation.contains(this.population.get(k))) {
+                    bestIndex = k;
                 }
-                //add the best individual to the new population
-                newPopulation.add(this.population.get(bestIndex));
-            }
-
-            // Generate children for new population
-            while (newPopulation.size() < this.populationSize) {
-                // Select parents
-                Boolean[] parent1 = selectParent();
-                Boolean[] parent2 = selectParent();
-
-                Boolean[] child;
-                Boolean[] child2;
-
-                // Crossover parents
-                if (Math.random() < this.crossoverRate) {
-                    ArrayList<Boolean[]> children = crossover(parent1, parent2);
-                    // split children into two children
-                    child = children.get(0);
-                    child2 = children.get(1);
-                } else {
-                    child = parent1;
-                    child2 = parent2;
+            }
+            //add the best individual to the new population
+            newPopulation.add(this.population.get(bestIndex));
+        }
+
+        // Generate children for new population
+        while (newPopulation.size() < this.populationSize) {
+            // Select parents
+            Genome parent1 = selectParent();
+            Genome parent2 = selectParent();
+
+            Genome child;
+            Genome child2;
+
+            // Crossover parents
+            if (this.rng.nextDouble() < this.crossoverRate) {
+                ArrayList<Genome> children = crossover(parent1, parent2);
+                // split children into two children
+                child = children.get(0);
+                child2 = children.get(1);
+            } else {
+                // Copy the parents, so mutation, repair & local search never change an individual of the current population (or the elite)
+                child = new Genome(parent1);
+                child2 = new Genome(parent2);
+            }
+            
+            // Mutate children
+            if (this.rng.nextDouble() < this.mutationRate) {
+                mutate(child);
+                mutate(child2);
+            }
+
+            // Repair children (unchanged copies of the parents were repaired already)
+            if (this.repair) {
+                if (!child.isEvaluated()) {
+                    repair(child);
                 }
-                
-                // Mutate children
-                if (Math.random() < this.mutationRate) {
-                    mutate(child);
-                    mutate(child2);
+                if (!child2.isEvaluated()) {
+                    repair(child2);
                 }
+            }
+            improve(child);
+            improve(child2);
+
+            // Add children to new population
+            newPopulation.add(child);
+            newPopulation.add(child2);
+        }
+
+        // Evaluate fitness of all individuals (only the children & mutated individuals are evaluated)
+        double[] newFitnesses = new double[newPopulation.size()];
+        double oldfitness = calculateAverageFitness(this.population, null);
+        double newFitness = calculateAverageFitness(newPopulation, newFitnesses);
+
+        // Generate a new population (generational replacement) with the fitnesses that were just calculated
+        if(newFitness > oldfitness){
+            this.population = newPopulation;
+            this.fitnesses = newFitnesses;
+        }
+    }
+
+    // Run one generation in steady state: as many children as a generational step, each pair made in the spare genomes
+    // A child fitter than the worst individual takes its place, and the worst individual's genome becomes the spare (no allocation)
+    // The fittest individual is never replaced, so it is kept without elitism
+    private void stepSteadyState() {
+        this.iterations++;
+        for (int made = this.numElite; made < this.populationSize; made += 2) {
+            Genome child = this.spares[0];
+            Genome child2 = this.spares[1];
+            Genome parent1 = selectParent();
+            Genome parent2 = selectParent();
+
+            // Crossover parents (or copy them)
+            if (this.rng.nextDouble() < this.crossoverRate) {
+                int crossoverPoint = (int) (this.rng.nextDouble() * this.numItems);
+                Genome.crossover(parent1, parent2, crossoverPoint, child, child2);
+            } else {
+                child.copyFrom(parent1);
+                child2.copyFrom(parent2);
+            }
 
-                // Add children to new population
-                newPopulation.add(child);
-                newPopulation.add(child2);
+            // Mutate & repair children
+            if (this.rng.nextDouble() < this.mutationRate) {
+                mutate(child);
+                mutate(child2);
             }
+            if (this.repair) {
+                if (!child.isEvaluated()) {
+                    repair(child);
+                }
+                if (!child2.isEvaluated()) {
+                    repair(child2);
+                }
+            }
+            improve(child);
+            improve(child2);
 
-            // Evaluate fitness of all individuals
-            Double oldfitness = calculateAverageFitness(this.population);
-            Double newFitness = calculateAverageFitness(newPopulation);
+            // Replace the worst individuals (copies of the parents that did not change are not added again)
+            replaceWorst(0);
+            replaceWorst(1);
+        }
+    }
 
-            // Generate a new population (generational replacement)
-            if(newFitness > oldfitness){
-                this.population = newPopulation;
-                calculateFitnesses();
+    // Put the child in spares[spare] in the place of the worst individual if it is fitter
+    private void replaceWorst(int spare) {
+        Genome child = this.spares[spare];
+        if (child.isEvaluated()) {
+            return;
+        }
+        double fitness = calculateFitness(child);
+        int worst = this.heap[0];
+        if (fitness > this.fitnesses[worst]) {
+            this.spares[spare] = this.population.get(worst);
+            this.population.set(worst, child);
+            this.fitnesses[worst] = fitness;
+            siftDown(0);
+        }
+    }
+
+    // Indexed min-heap of the population by fitness (steady state)
+    private void createHeap() {
+        int size = this.population.size();
+        this.heap = new int[size];
+        this.heapIndex = new int[size];
+        for (int k = 0; k < size; k++) {
+            this.heap[k] = k;
+            this.heapIndex[k] = k;
+        }
+        for (int k = size / 2 - 1; k >= 0; k--) {
+            siftDown(k);
+        }
+        this.spares = new Genome[] {new Genome(this.instance), new Genome(this.instance)};
+    }
+
+    // Restore the heap after the fitness of an individual changed
+    private void updateHeap(int index) {
+        siftUp(this.heapIndex[index]);
+        siftDown(this.heapIndex[index]);
+    }
+
+    private void siftUp(int k) {
+        while (k > 0) {
+            int parent = (k - 1) / 2;
+            if (this.fitnesses[this.heap[k]] >= this.fitnesses[this.heap[parent]]) {
+                return;
+            }
+            swapHeap(k, parent);
+            k = parent;
+        }
+    }
+
+    private void siftDown(int k) {
+        int size = this.heap.length;
+        while (2 * k + 1 < size) {
+            int child = 2 * k + 1;
+            if (child + 1 < size && this.fitnesses[this.heap[child + 1]] < this.fitnesses[this.heap[child]]) {
+                child++;
             }
+            if (this.fitnesses[this.heap[k]] <= this.fitnesses[this.heap[child]]) {
+                return;
+            }
+            swapHeap(k, child);
+            k = child;
+        }
+    }
+
+    private void swapHeap(int a, int b) {
+        int index = this.heap[a];
+        this.heap[a] = this.heap[b];
+        this.heap[b] = index;
+        this.heapIndex[this.heap[a]] = a;
+        this.heapIndex[this.heap[b]] = b;
+    }
+
+    // Method
+    public void solve(){
+        // Start timer (the initial population is skipped when resuming from a checkpoint)
+        if (startSolve()) {
+            init();
+        }
+
+        // Loop through generations
+        for (int i = (int) this.iterations; i < this.numGenerations && !terminated(); i++) {
+            checkpoint();
+            step();
+            sample();
         }
 
         // Stop timer
-        this.time.set(System.currentTimeMillis() - this.time.get());
-    }  
+        finishSolve();
+    }
+
+    protected double diversity() {
+        return meanDistance(this.population);
+    }
+
+    protected double averageFitness() {
+        double total = 0.0;
+        for (double fitness : this.fitnesses) {
+            total += fitness;
+        }
+        return this.fitnesses.length == 0 ? Double.NaN : total / this.fitnesses.length;
+    }
+
+    // Copies of the fittest individuals (to send to another population)
+    public Genome[] emigrants(int count) {
+        count = Math.min(count, this.population.size());
+        Genome[] emigrants = new Genome[count];
+        boolean[] taken = new boolean[this.population.size()];
+        for (int j = 0; j < count; j++) {
+            int bestIndex = -1;
+            for (int k = 0; k < this.fitnesses.length; k++) {
+                if (!taken[k] && (bestIndex < 0 || this.fitnesses[k] > this.fitnesses[bestIndex])) {
+                    bestIndex = k;
+                }
+            }
+            taken[bestIndex] = true;
+            emigrants[j] = new Genome(this.population.get(bestIndex));
+        }
+        return emigrants;
+    }
+
+    // Replace the least fit individuals with individuals from another population (already evaluated)
+    public void immigrate(Genome[] immigrants) {
+        for (Genome immigrant : immigrants) {
+            int worstIndex = 0;
+            for (int k = 0; k < this.fitnesses.length; k++) {
+                if (this.fitnesses[k] < this.fitnesses[worstIndex]) {
+                    worstIndex = k;
+                }
+            }
+            this.population.set(worstIndex, immigrant);
+            this.fitnesses[worstIndex] = calculateFitness(immigrant);
+            if (this.heap != null) {
+                updateHeap(worstIndex);
+            }
+        }
+    }
+
+    // Checkpoint state: the population (individuals that are the same array are written once), fitnesses and best solution
+    // In steady state, also the order of the heap (so ties for the worst individual are broken the same way after resuming)
+    protected void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        out.writeBoolean(this.steadyState);
+        ArrayList<Genome> written = new ArrayList<>();
+        out.writeInt(this.population.size());
+        for (Genome individual : this.population) {
+            writeSolution(out, individual, written);
+            written.add(individual);
+        }
+        for (double fitness : this.fitnesses) {
+            out.writeDouble(fitness);
+        }
+        writeSolution(out, getBestSolution(), written);
+        if (this.steadyState) {
+            for (int index : this.heap) {
+                out.writeInt(index);
+            }
+        }
+    }
+
+    protected boolean readState(DataInputStream in) throws IOException {
+        if (!super.readState(in) || in.readBoolean() != this.steadyState) {
+            return false;
+        }
+        this.population.clear();
+        int size = in.readInt();
+        this.fitnesses = new double[size];
+        for (int i = 0; i < size; i++) {
+            this.population.add(readSolution(in, this.population));
+        }
+        for (int i = 0; i < size; i++) {
+            this.fitnesses[i] = in.readDouble();
+        }
+        setBestSolution(readSolution(in, this.population));
+        if (this.steadyState) {
+            createHeap();
+            for (int k = 0; k < size; k++) {
+                this.heap[k] = in.readInt();
+                this.heapIndex[this.heap[k]] = k;
+            }
+        }
+        return true;
+    }
 
 }
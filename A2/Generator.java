@@ -0,0 +1,86 @@
+// Tayla Orsmond u21467456
+// Generator class creates synthetic (seeded) knapsack instances in the same format as the Knapsack Instances
+// (first line "no. of items capacity", then one "value weight" line per item) to test the solvers at a larger scale
+// Usage: java Generator <no. of items> <distribution> <seed> <path> [range] [capacity ratio]
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Random;
+
+public class Generator {
+    // The value / weight correlations that can be generated (as in Pisinger's generator)
+    public static final String[] distributions = {"uncorrelated", "weakly", "strongly", "inverse", "subset"};
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: java Generator <no. of items> <distribution> <seed> <path> [range] [capacity ratio]");
+            System.out.println("Distributions: " + String.join(", ", distributions));
+            return;
+        }
+        try {
+            int range = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+            double ratio = args.length > 5 ? Double.parseDouble(args[5]) : 0.5;
+            write(args[3], Integer.parseInt(args[0]), args[1], range, ratio, Long.parseLong(args[2]));
+        } catch (IOException e) {
+            System.out.println("[Generator] Error writing instance " + args[3] + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Write a synthetic instance to a file
+     * @details The weights are drawn first (so the capacity can be written on the first line), then the items are streamed to the file
+     * @param path The path to the file
+     * @param numItems The no. of items
+     * @param distribution The correlation between values and weights (see distributions)
+     * @param range The weights are drawn from [1, range]
+     * @param ratio The capacity as a fraction of the total weight
+     * @param seed The seed of the random number generator
+     * @return The capacity of the instance
+     * @throws IOException
+     */
+    public static int write(String path, int numItems, String distribution, int range, double ratio, long seed) throws IOException {
+        Random rng = new Random(seed);
+        int[] weights = new int[numItems];
+        long total = 0;
+        for (int i = 0; i < numItems; i++) {
+            weights[i] = 1 + rng.nextInt(range);
+            if (distribution.equals("inverse")) {
+                weights[i] += range / 10;
+            }
+            total += weights[i];
+        }
+        int capacity = (int) Math.min(Integer.MAX_VALUE, Math.max(1, Math.round(total * ratio)));
+
+        BufferedWriter writer = new BufferedWriter(new FileWriter(path), 1 << 16);
+        writer.write(numItems + " " + capacity + "\n");
+        for (int i = 0; i < numItems; i++) {
+            int w = weights[i];
+            int v;
+            switch (distribution) {
+                case "uncorrelated":
+                    v = 1 + rng.nextInt(range);
+                    break;
+                case "weakly": // value within range / 10 of the weight
+                    v = Math.max(1, w - range / 10 + rng.nextInt(Math.max(1, range / 5 + 1)));
+                    break;
+                case "strongly": // value = weight + range / 10
+                    v = w + range / 10;
+                    break;
+                case "inverse": // weight = value + range / 10
+                    v = w - range / 10;
+                    break;
+                case "subset": // value = weight
+                    v = w;
+                    break;
+                default:
+                    writer.close();
+                    throw new IllegalArgumentException("[Generator] Unknown distribution: " + distribution);
+            }
+            writer.write(v + " " + w + "\n");
+        }
+        writer.close();
+        return capacity;
+    }
+}
@@ -0,0 +1,284 @@
+// Tayla Orsmond u21467456
+// Genome class stores a knapsack solution (chromosome / individual) as a bit set packed into longs
+// Bit i is set if item i is in the knapsack; 64 genes share one word instead of one Boolean reference per gene
+// The total value & weight of the items in the knapsack are kept up to date as genes change, so evaluating a genome is O(1)
+// The fitness is stored with the genome once it is evaluated and forgotten when a gene changes, so unchanged genomes are not evaluated again
+// For fixed point instances the totals are kept as exact longs (x scale), and the double totals are converted from them
+
+import java.util.Arrays;
+
+public class Genome {
+    private final Instance instance;
+    private final long[] words;
+    private final int size; // no. of genes (items)
+    private final long scale; // instance.scale (0 = the totals are only kept as doubles)
+    private double value; // total value of the items in the knapsack
+    private double weight; // total weight of the items in the knapsack
+    private long scaledValue; // total value x scale (fixed point)
+    private long scaledWeight; // total weight x scale (fixed point)
+    private double fitness = Double.NaN; // fitness of the genome (NaN until it is evaluated)
+
+    // Constructors
+    public Genome(Instance instance) {
+        this.instance = instance;
+        this.size = instance.numItems;
+        this.scale = instance.scale;
+        this.words = new long[(size + 63) >>> 6];
+    }
+
+    public Genome(Genome other) {
+        this.instance = other.instance;
+        this.size = other.size;
+        this.scale = other.scale;
+        this.words = other.words.clone();
+        this.value = other.value;
+        this.weight = other.weight;
+        this.scaledValue = other.scaledValue;
+        this.scaledWeight = other.scaledWeight;
+        this.fitness = other.fitness;
+    }
+
+    // Getters
+    public int size() {
+        return size;
+    }
+
+    public boolean get(int i) {
+        return (words[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public long getScaledValue() {
+        return scaledValue;
+    }
+
+    public long getScaledWeight() {
+        return scaledWeight;
+    }
+
+    public boolean isEvaluated() {
+        return !Double.isNaN(fitness);
+    }
+
+    public double getFitness() {
+        return fitness;
+    }
+
+    public void setFitness(double fitness) {
+        this.fitness = fitness;
+    }
+
+    // Raw words (for checkpoints)
+    public long[] getWords() {
+        return words;
+    }
+
+    // Setters
+    public void set(int i, boolean in) {
+        if (get(i) != in) {
+            flip(i);
+        }
+    }
+
+    // Add / remove item i (O(1) update of the value & weight)
+    public void flip(int i) {
+        words[i >>> 6] ^= 1L << i;
+        fitness = Double.NaN;
+        if (scale > 0) {
+            if (get(i)) {
+                scaledValue += instance.scaledValues[i];
+                scaledWeight += instance.scaledWeights[i];
+            } else {
+                scaledValue -= instance.scaledValues[i];
+                scaledWeight -= instance.scaledWeights[i];
+            }
+            convertTotals();
+        } else if (get(i)) {
+            value += instance.values[i];
+            weight += instance.weights[i];
+        } else {
+            value -= instance.values[i];
+            weight -= instance.weights[i];
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(words, 0L);
+        value = 0.0;
+        weight = 0.0;
+        scaledValue = 0;
+        scaledWeight = 0;
+        fitness = Double.NaN;
+    }
+
+    public void copyFrom(Genome other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+        value = other.value;
+        weight = other.weight;
+        scaledValue = other.scaledValue;
+        scaledWeight = other.scaledWeight;
+        fitness = other.fitness;
+    }
+
+    // Double totals from the fixed point ones (correctly rounded, so they equal the decimal totals parsed as doubles)
+    private void convertTotals() {
+        value = scale == 1 ? scaledValue : (double) scaledValue / scale;
+        weight = scale == 1 ? scaledWeight : (double) scaledWeight / scale;
+    }
+
+    // Set the words, totals & fitness directly (when loading a checkpoint, so they are exactly the ones that were saved)
+    // The fixed point totals are exact, so they are converted back from the double ones
+    public void load(long[] words, double value, double weight, double fitness) {
+        System.arraycopy(words, 0, this.words, 0, this.words.length);
+        this.value = value;
+        this.weight = weight;
+        this.scaledValue = Math.round(value * scale);
+        this.scaledWeight = Math.round(weight * scale);
+        this.fitness = fitness;
+    }
+
+    // Helpers
+    // Index of the first set bit at or after from (-1 if there is none), for looping over the items in the knapsack
+    public int nextSetBit(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                return i < size ? i : -1;
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    // No. of genes that differ from the other genome
+    public int distance(Genome other) {
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            count += Long.bitCount(words[w] ^ other.words[w]);
+        }
+        return count;
+    }
+
+    // One-point crossover: child1 = parent1[0, point) + parent2[point, size), child2 the other way around
+    // Whole words are copied and only the word containing the point is masked
+    // The children's totals are updated from the parents' using only the shorter side of the point (no allocation)
+    public static void crossover(Genome parent1, Genome parent2, int point, Genome child1, Genome child2) {
+        boolean head = point <= parent1.size - point; // the head [0, point) is the shorter side
+        int from = head ? 0 : point;
+        int to = head ? point : parent1.size;
+        if (parent1.scale > 0) {
+            // Fixed point: the same update with the exact totals
+            long[] values = parent1.instance.scaledValues;
+            long[] weights = parent1.instance.scaledWeights;
+            long swappedValue1 = 0;
+            long swappedWeight1 = 0;
+            for (int i = parent1.nextSetBit(from); i >= 0 && i < to; i = parent1.nextSetBit(i + 1)) {
+                swappedValue1 += values[i];
+                swappedWeight1 += weights[i];
+            }
+            long swappedValue2 = 0;
+            long swappedWeight2 = 0;
+            for (int i = parent2.nextSetBit(from); i >= 0 && i < to; i = parent2.nextSetBit(i + 1)) {
+                swappedValue2 += values[i];
+                swappedWeight2 += weights[i];
+            }
+            child1.scaledValue = head ? parent2.scaledValue - swappedValue2 + swappedValue1 : parent1.scaledValue - swappedValue1 + swappedValue2;
+            child1.scaledWeight = head ? parent2.scaledWeight - swappedWeight2 + swappedWeight1 : parent1.scaledWeight - swappedWeight1 + swappedWeight2;
+            child2.scaledValue = parent1.scaledValue + parent2.scaledValue - child1.scaledValue;
+            child2.scaledWeight = parent1.scaledWeight + parent2.scaledWeight - child1.scaledWeight;
+            copyWords(parent1, parent2, point, child1, child2);
+            child1.convertTotals();
+            child2.convertTotals();
+            child1.fitness = Double.NaN;
+            child2.fitness = Double.NaN;
+            return;
+        }
+        // Value & weight of each parent's items on the shorter side (O(no. of words in it + items in it))
+        double[] values = parent1.instance.values;
+        double[] weights = parent1.instance.weights;
+        double swappedValue1 = 0.0;
+        double swappedWeight1 = 0.0;
+        for (int i = parent1.nextSetBit(from); i >= 0 && i < to; i = parent1.nextSetBit(i + 1)) {
+            swappedValue1 += values[i];
+            swappedWeight1 += weights[i];
+        }
+        double swappedValue2 = 0.0;
+        double swappedWeight2 = 0.0;
+        for (int i = parent2.nextSetBit(from); i >= 0 && i < to; i = parent2.nextSetBit(i + 1)) {
+            swappedValue2 += values[i];
+            swappedWeight2 += weights[i];
+        }
+        // child1 keeps parent1's shorter side when it is the head, otherwise it keeps parent2's
+        double value1 = head ? parent2.value - swappedValue2 + swappedValue1 : parent1.value - swappedValue1 + swappedValue2;
+        double weight1 = head ? parent2.weight - swappedWeight2 + swappedWeight1 : parent1.weight - swappedWeight1 + swappedWeight2;
+        double value2 = parent1.value + parent2.value - value1;
+        double weight2 = parent1.weight + parent2.weight - weight1;
+        copyWords(parent1, parent2, point, child1, child2);
+        child1.value = value1;
+        child1.weight = weight1;
+        child1.fitness = Double.NaN;
+        child2.value = value2;
+        child2.weight = weight2;
+        child2.fitness = Double.NaN;
+    }
+
+    // Copy the words of the crossover children (whole words, only the word containing the point is masked)
+    private static void copyWords(Genome parent1, Genome parent2, int point, Genome child1, Genome child2) {
+        int w = point >>> 6;
+        System.arraycopy(parent1.words, 0, child1.words, 0, w);
+        System.arraycopy(parent2.words, 0, child2.words, 0, w);
+        if (w < parent1.words.length) {
+            long low = (1L << point) - 1; // genes before the point in word w (0 when the point starts the word)
+            child1.words[w] = (parent1.words[w] & low) | (parent2.words[w] & ~low);
+            child2.words[w] = (parent2.words[w] & low) | (parent1.words[w] & ~low);
+            int rest = parent1.words.length - w - 1;
+            System.arraycopy(parent2.words, w + 1, child1.words, w + 1, rest);
+            System.arraycopy(parent1.words, w + 1, child2.words, w + 1, rest);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Genome)) {
+            return false;
+        }
+        Genome other = (Genome) o;
+        return size == other.size && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    // Same format as Arrays.toString(Boolean[]) so the solution files do not change
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(size * 7);
+        sb.append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(get(i));
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,28 @@
+// Tayla Orsmond u21467456
+// Incumbent class stores the best solution found so far (fitness, solution and when it was found)
+// It is immutable (the solution is a copy that is never changed), so a solver can replace it with a compare-and-set and read it from any thread
+
+public class Incumbent {
+    private final double fitness;
+    private final Genome solution;
+    private final long timeToBest; // ms from the start of the solve until the solution was found
+
+    public Incumbent(double fitness, Genome solution, long timeToBest) {
+        this.fitness = fitness;
+        this.solution = solution;
+        this.timeToBest = timeToBest;
+    }
+
+    // Getters
+    public double getFitness() {
+        return fitness;
+    }
+
+    public Genome getSolution() {
+        return solution;
+    }
+
+    public long getTimeToBest() {
+        return timeToBest;
+    }
+}
@@ -0,0 +1,67 @@
+// Tayla Orsmond u21467456
+// IncumbentTest checks that the best solution kept by each solver is the one its best fitness belongs to
+// (the solvers reuse their genomes, so the best solution must not change after it is stored)
+// Usage: java IncumbentTest [no. of seeds]  (exits with status 1 if any run fails)
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class IncumbentTest {
+    public static void main(String[] args) {
+        int numSeeds = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        String[] algorithms = {"GA", "SteadyStateGA", "ACO", "ParallelACO", "MMAS"};
+        int failures = 0;
+        for (String algorithm : algorithms) {
+            int failed = 0;
+            for (long seed = 1; seed <= numSeeds; seed++) {
+                Solver solver = create(algorithm);
+                solver.setDataset("test");
+                solver.setInstanceName("random_" + seed);
+                solver.setOptimal(0.0);
+                solver.setItems(instance(60, seed));
+                solver.setSeed(seed);
+                solver.solve();
+                Genome bestSolution = solver.getBestSolution();
+                if (bestSolution == null || solver.evaluate(bestSolution) != solver.getBestFitness()) {
+                    failed++;
+                    System.out.println("[IncumbentTest] " + algorithm + " seed " + seed + ": best fitness " + solver.getBestFitness()
+                            + " but the best solution is worth " + (bestSolution == null ? "nothing" : solver.evaluate(bestSolution)));
+                }
+            }
+            System.out.println("[IncumbentTest] " + algorithm + ": " + (numSeeds - failed) + " / " + numSeeds + " runs passed");
+            failures += failed;
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static Solver create(String algorithm) {
+        switch (algorithm) {
+            case "SteadyStateGA":
+                return new GA(true, true);
+            case "ACO":
+                return new ACO();
+            case "ParallelACO":
+                return new ACO(16, true);
+            case "MMAS":
+                return new MMAS();
+            default:
+                return new GA();
+        }
+    }
+
+    // Random instance in the format of the instance files (the capacity is a third of the total weight)
+    private static ArrayList<String> instance(int numItems, long seed) {
+        Random rng = new Random(seed);
+        ArrayList<String> data = new ArrayList<>();
+        ArrayList<String> items = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < numItems; i++) {
+            int weight = 1 + rng.nextInt(100);
+            total += weight;
+            items.add((1 + rng.nextInt(100)) + " " + weight);
+        }
+        data.add(numItems + " " + total / 3);
+        data.addAll(items);
+        return data;
+    }
+}
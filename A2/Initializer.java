@@ -0,0 +1,128 @@
+// Tayla Orsmond u21467456
+// Initializer class creates the starting solutions of the GA population & chooses the item each ACO ant starts at
+// RANDOM: every item is in the knapsack with probability 0.5 (the ants start at any item)
+// GREEDY: the items are added from the best to the worst value / weight ratio if they fit (the ants start at the best ratio item)
+// RANDOMIZED_GREEDY: like GREEDY, but each item added is chosen at random from the next rclSize best ratio items that fit
+// (the restricted candidate list), so the solutions are good but differ from each other
+// MIXED: a share of the solutions are RANDOMIZED_GREEDY, the rest are RANDOM
+
+import java.util.Random;
+
+public class Initializer {
+    public enum Strategy {
+        RANDOM, GREEDY, RANDOMIZED_GREEDY, MIXED
+    }
+
+    private final Strategy strategy;
+    private final int rclSize; // no. of candidates (best ratio items that fit) each randomized greedy item is chosen from
+    private final double greedyShare; // share of randomized greedy solutions (MIXED)
+
+    // Constructors
+    public Initializer(Strategy strategy) {
+        this(strategy, 5, 0.5);
+    }
+
+    public Initializer(Strategy strategy, int rclSize, double greedyShare) {
+        this.strategy = strategy;
+        this.rclSize = rclSize;
+        this.greedyShare = greedyShare;
+    }
+
+    public Strategy getStrategy() {
+        return this.strategy;
+    }
+
+    public String toString() {
+        switch (this.strategy) {
+            case RANDOMIZED_GREEDY:
+                return this.strategy + "(rcl=" + this.rclSize + ")";
+            case MIXED:
+                return this.strategy + "(rcl=" + this.rclSize + ",greedyShare=" + this.greedyShare + ")";
+            default:
+                return this.strategy.toString();
+        }
+    }
+
+    // Create a starting solution
+    public Genome create(Instance instance, Random rng) {
+        switch (this.strategy) {
+            case GREEDY:
+                return randomizedGreedy(instance, 1, rng);
+            case RANDOMIZED_GREEDY:
+                return randomizedGreedy(instance, this.rclSize, rng);
+            case MIXED:
+                return rng.nextDouble() < this.greedyShare ? randomizedGreedy(instance, this.rclSize, rng) : random(instance, rng);
+            default:
+                return random(instance, rng);
+        }
+    }
+
+    // Choose the item an ant starts at
+    public int startItem(Instance instance, Random rng) {
+        switch (this.strategy) {
+            case GREEDY:
+                return candidate(instance, 1, rng);
+            case RANDOMIZED_GREEDY:
+                return candidate(instance, this.rclSize, rng);
+            case MIXED:
+                return rng.nextDouble() < this.greedyShare ? candidate(instance, this.rclSize, rng) : (int) (rng.nextDouble() * instance.numItems);
+            default:
+                return (int) (rng.nextDouble() * instance.numItems);
+        }
+    }
+
+    private static Genome random(Instance instance, Random rng) {
+        Genome solution = new Genome(instance);
+        for (int i = 0; i < instance.numItems; i++) {
+            solution.set(i, rng.nextDouble() < 0.5);
+        }
+        return solution;
+    }
+
+    // Add items chosen at random from the next rclSize best ratio items that fit, until none fits (rclSize = 1 is the greedy solution)
+    // An item that does not fit never fits later (the remaining capacity only shrinks), so the ratio order is only scanned once: O(n + items added x rclSize)
+    private static Genome randomizedGreedy(Instance instance, int rclSize, Random rng) {
+        Genome solution = new Genome(instance);
+        int[] order = instance.order;
+        double[] weights = instance.weights;
+        int[] candidates = new int[rclSize];
+        int count = 0;
+        int next = 0; // next item (in ratio order) to consider for the candidate list
+        while (true) {
+            double remaining = instance.capacity - solution.getWeight();
+            // Drop the candidates that no longer fit, then fill the list up with the next items that fit
+            for (int c = count - 1; c >= 0; c--) {
+                if (weights[candidates[c]] > remaining) {
+                    candidates[c] = candidates[--count];
+                }
+            }
+            while (count < rclSize && next < instance.numItems) {
+                int i = order[next++];
+                if (weights[i] <= remaining) {
+                    candidates[count++] = i;
+                }
+            }
+            if (count == 0) {
+                return solution;
+            }
+            int c = rclSize == 1 ? 0 : rng.nextInt(count);
+            solution.set(candidates[c], true);
+            candidates[c] = candidates[--count];
+        }
+    }
+
+    // One of the rclSize best ratio items that fit in the empty knapsack (the first item if none fits)
+    private static int candidate(Instance instance, int rclSize, Random rng) {
+        int[] candidates = new int[rclSize];
+        int count = 0;
+        for (int k = 0; k < instance.numItems && count < rclSize; k++) {
+            if (instance.weights[instance.order[k]] <= instance.capacity) {
+                candidates[count++] = instance.order[k];
+            }
+        }
+        if (count == 0) {
+            return instance.numItems > 0 ? instance.order[0] : 0;
+        }
+        return rclSize == 1 ? candidates[0] : candidates[rng.nextInt(count)];
+    }
+}
@@ -0,0 +1,125 @@
+// Tayla Orsmond u21467456
+// Instance class stores the items of a knapsack instance as parallel primitive arrays (struct of arrays)
+// Item i has values[i], weights[i] and ratios[i] = values[i] / weights[i]; order lists the items from the best to the worst ratio
+// If every value & weight has at most 9 decimals, they are also kept as fixed point longs (x 10^decimals), so the genomes' totals
+// and the fitness are exact (no floating point drift, and no rounding when a solution is evaluated)
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class Instance {
+    public final int numItems;
+    public final double capacity; // a whole number in the instance files, but not after a Reduction
+    public final double offset; // value of the items a Reduction fixed in the knapsack (added to the value of every solution)
+    public final double[] values;
+    public final double[] weights;
+    public final double[] ratios; // value per unit of weight
+    public final int[] order; // item indices sorted by decreasing ratio (ties by index)
+    public final int[] byWeight; // item indices sorted by decreasing weight (ties by index)
+    public final double[] lightest; // lightest[k] = weight of the lightest item of order[k..] (infinity after the last item)
+    public final long scale; // 10^decimals of the fixed point values & weights (0 = not fixed point)
+    public final long[] scaledValues; // values x scale (null if not fixed point)
+    public final long[] scaledWeights; // weights x scale (null if not fixed point)
+    public final long scaledCapacity;
+    public final long scaledOffset;
+
+    // Constructors
+    public Instance(double[] values, double[] weights, double capacity) {
+        this(values, weights, capacity, 0.0);
+    }
+
+    public Instance(double[] values, double[] weights, double capacity, double offset) {
+        this.numItems = values.length;
+        this.capacity = capacity;
+        this.offset = offset;
+        this.values = values;
+        this.weights = weights;
+        this.ratios = new double[this.numItems];
+        for (int i = 0; i < this.numItems; i++) {
+            this.ratios[i] = values[i] / weights[i];
+        }
+        this.order = sortDescending(this.ratios);
+        this.byWeight = sortDescending(weights);
+        this.lightest = new double[this.numItems + 1];
+        this.lightest[this.numItems] = Double.POSITIVE_INFINITY;
+        for (int k = this.numItems - 1; k >= 0; k--) {
+            this.lightest[k] = Math.min(weights[this.order[k]], this.lightest[k + 1]);
+        }
+        this.scale = fixedPointScale(values, weights, capacity, offset);
+        this.scaledValues = this.scale > 0 ? scale(values, this.scale) : null;
+        this.scaledWeights = this.scale > 0 ? scale(weights, this.scale) : null;
+        this.scaledCapacity = this.scale > 0 ? Math.round(capacity * this.scale) : 0;
+        this.scaledOffset = this.scale > 0 ? Math.round(offset * this.scale) : 0;
+    }
+
+    // Smallest power of 10 (up to 10^9) that makes every value & weight, the capacity and the offset whole numbers
+    // 0 if there is none, or if the totals would not be exact in a double (up to 2^51, so a total converts back & forth exactly)
+    private static long fixedPointScale(double[] values, double[] weights, double capacity, double offset) {
+        long scale = 1;
+        double[] extra = {capacity, offset};
+        for (double[] numbers : new double[][] {values, weights, extra}) {
+            for (double x : numbers) {
+                while (Math.rint(x * scale) / scale != x) {
+                    scale *= 10;
+                    if (scale > 1000000000L) {
+                        return 0;
+                    }
+                }
+            }
+        }
+        double limit = (double) (1L << 51);
+        for (double[] numbers : new double[][] {values, weights, extra}) {
+            double total = 0.0;
+            for (double x : numbers) {
+                total += Math.abs(x) * scale;
+            }
+            if (!(total < limit)) {
+                return 0;
+            }
+        }
+        return scale;
+    }
+
+    private static long[] scale(double[] numbers, long scale) {
+        long[] scaled = new long[numbers.length];
+        for (int i = 0; i < numbers.length; i++) {
+            scaled[i] = Math.round(numbers[i] * scale);
+        }
+        return scaled;
+    }
+
+    // Indices of the keys sorted by decreasing key (stable, so ties are in index order)
+    private static int[] sortDescending(double[] keys) {
+        Integer[] sorted = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> Double.compare(keys[b], keys[a]));
+        int[] indices = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            indices[i] = sorted[i];
+        }
+        return indices;
+    }
+
+    // Parse an instance from the lines of an instance file
+    // First line is item count and capacity respectively, then one "value weight" line per item
+    public static Instance parse(ArrayList<String> data) {
+        String[] header = data.get(0).split(" ");
+        int numItems = Integer.parseInt(header[0]);
+        int capacity = Integer.parseInt(header[1]);
+        double[] values = new double[numItems];
+        double[] weights = new double[numItems];
+        for (int i = 0; i < numItems; i++) {
+            String[] itemData = data.get(i + 1).split(" ");
+            values[i] = Double.parseDouble(itemData[0]);
+            weights[i] = Double.parseDouble(itemData[1]);
+        }
+        return new Instance(values, weights, capacity);
+    }
+
+    // An empty instance (before one is loaded)
+    public static Instance empty() {
+        return new Instance(new double[0], new double[0], 0);
+    }
+}
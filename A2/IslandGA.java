@@ -0,0 +1,133 @@
+// Tayla Orsmond u21467456
+// Island model Genetic Algorithm class to solve instances of the knapsack problem with several GA populations (islands) in parallel
+// Each island is a GA with its own random number generator on its own thread; every few generations each island sends copies
+// of its fittest individuals to the next island in a ring through a lock-free mailbox (the latest migrants replace unread ones)
+// Islands do not wait for each other, so (unlike GA and ACO) a run with more than one island is not exactly repeatable
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class IslandGA extends Solver {
+    private final int numIslands; // no. of islands (threads)
+    private final int migrationInterval; // no. of generations between migrations
+    private final int numMigrants; // no. of individuals sent in each migration
+
+    private GA[] islands;
+    private AtomicReferenceArray<Genome[]> mailboxes; // migrants waiting for each island
+    private LocalSearch localSearch; // memetic stage of every island (null = off)
+
+    // Constructors
+    public IslandGA() {
+        this(Runtime.getRuntime().availableProcessors(), 10, 2);
+    }
+
+    public IslandGA(int numIslands, int migrationInterval, int numMigrants) {
+        super();
+        this.numIslands = Math.max(1, numIslands);
+        this.migrationInterval = migrationInterval;
+        this.numMigrants = numMigrants;
+    }
+
+    // Helpers
+    public void clear() {
+        super.clear();
+        this.islands = null;
+        this.mailboxes = null;
+    }
+
+    public void setLocalSearch(LocalSearch localSearch) {
+        this.localSearch = localSearch;
+    }
+
+    public String getParameters() {
+        GA ga = new GA();
+        ga.setInitializer(this.initializer);
+        ga.setLocalSearch(this.localSearch);
+        return ga.getParameters() + ";numIslands=" + this.numIslands + ";migrationInterval=" + this.migrationInterval + ";numMigrants=" + this.numMigrants;
+    }
+
+    // Create the islands: the population of a single GA (3 x no. of items) is split between them
+    private void createIslands() {
+        this.islands = new GA[this.numIslands];
+        this.mailboxes = new AtomicReferenceArray<>(this.numIslands);
+        int populationSize = Math.max(4, 3 * this.numItems / this.numIslands);
+        for (int i = 0; i < this.numIslands; i++) {
+            this.islands[i] = new GA();
+            this.islands[i].setDataset(this.dataset);
+            this.islands[i].setInstanceName(this.instanceName);
+            this.islands[i].setInstance(this.instance);
+            this.islands[i].setPopulationSize(populationSize);
+            this.islands[i].setInitializer(this.initializer);
+            this.islands[i].setLocalSearch(this.localSearch);
+            this.islands[i].setSeed(this.rng.nextLong()); // each island has its own random number stream
+        }
+    }
+
+    // Evolve one island on the current thread, migrating every migrationInterval generations
+    private void evolve(int island) {
+        GA ga = this.islands[island];
+        ga.time.set(this.time.get()); // same start time, so the time to the best solution is from the start of the solve
+        ga.init();
+        offer(ga);
+        for (int i = 0; i < ga.getNumGenerations(); i++) {
+            ga.step();
+            offer(ga);
+            if ((i + 1) % this.migrationInterval == 0 && this.numIslands > 1) {
+                // Send to the next island in the ring (replacing migrants it has not taken yet) & take the ones sent to this island
+                this.mailboxes.set((island + 1) % this.numIslands, ga.emigrants(this.numMigrants));
+                Genome[] immigrants = this.mailboxes.getAndSet(island, null);
+                if (immigrants != null) {
+                    ga.immigrate(immigrants);
+                }
+            }
+        }
+    }
+
+    // Offer the best solution of an island as the best overall
+    private void offer(GA ga) {
+        Incumbent islandBest = ga.best.get();
+        Incumbent current = this.best.get();
+        if (islandBest.getSolution() != null && (islandBest.getFitness() > current.getFitness() || current.getFitness() == 0.0)) {
+            updateBest(islandBest.getSolution(), islandBest.getFitness());
+        }
+    }
+
+    // Method
+    public void solve() {
+        // Start timer (islands are not checkpointed, a resumed solve starts over)
+        startSolve();
+        createIslands();
+
+        // Run the islands in parallel
+        ExecutorService pool = Executors.newFixedThreadPool(this.numIslands);
+        ArrayList<Future<?>> runs = new ArrayList<>();
+        for (int i = 0; i < this.numIslands; i++) {
+            final int island = i;
+            runs.add(pool.submit(() -> evolve(island)));
+        }
+        try {
+            for (Future<?> run : runs) {
+                run.get();
+            }
+        } catch (Exception e) {
+            System.out.println("[IslandGA] Error running islands: " + e);
+            e.printStackTrace();
+        } finally {
+            pool.shutdown();
+        }
+
+        // Generations & evaluations of all the islands
+        this.iterations = 0;
+        this.evaluations = 0;
+        for (GA ga : this.islands) {
+            this.iterations = Math.max(this.iterations, ga.iterations);
+            this.evaluations += ga.evaluations;
+        }
+
+        // Stop timer
+        finishSolve();
+    }
+}
@@ -0,0 +1,93 @@
+// Tayla Orsmond u21467456
+// LocalSearch class improves a solution with first improvement local search (the memetic stage of the GA)
+// Moves: add an item that fits, drop an item (only while the solution does not fit, since dropping never adds value),
+// or swap an item in the knapsack for a more valuable one that fits in its place
+// Each move is checked in O(1) from the genome's value & weight (added up in the same order as the genome, so rounding cannot overflow)
+// The items are scanned from a random start, so the first improvement differs between children
+// The search stops at a local optimum, or once moveBudget items / pairs have been checked
+
+import java.util.Random;
+
+public class LocalSearch {
+    private final int moveBudget; // max. no. of moves checked per solution
+    private final double share; // share of the children that are improved
+
+    // Constructors
+    public LocalSearch(int moveBudget, double share) {
+        this.moveBudget = moveBudget;
+        this.share = share;
+    }
+
+    public double getShare() {
+        return this.share;
+    }
+
+    public String toString() {
+        return "moveBudget=" + this.moveBudget + ",share=" + this.share;
+    }
+
+    // Improve the solution in place, returns the no. of improving moves made
+    public int improve(Genome solution, Instance instance, Random rng) {
+        int n = instance.numItems;
+        double[] values = instance.values;
+        double[] weights = instance.weights;
+        int checked = 0;
+        int improvements = 0;
+        while (n > 0 && checked < this.moveBudget) {
+            double residual = instance.capacity - solution.getWeight();
+            int start = rng.nextInt(n);
+            int made = -1; // item added / dropped (or taken out by a swap) by this pass
+            if (residual < 0) {
+                // Drop: the first item whose removal makes the solution fit (a solution that does not fit is worth 0)
+                for (int t = 0; t < n && checked < this.moveBudget && made < 0; t++) {
+                    int i = (start + t) % n;
+                    if (solution.get(i)) {
+                        checked++;
+                        if (weights[i] >= -residual && solution.getValue() - values[i] > 0) {
+                            solution.set(i, false);
+                            made = i;
+                        }
+                    }
+                }
+            } else {
+                // Add: the first item that fits
+                for (int t = 0; t < n && checked < this.moveBudget && made < 0; t++) {
+                    int i = (start + t) % n;
+                    if (!solution.get(i)) {
+                        checked++;
+                        if (solution.getWeight() + weights[i] <= instance.capacity && values[i] > 0) {
+                            solution.set(i, true);
+                            made = i;
+                        }
+                    }
+                }
+                // Swap: the first pair (i in, j out) where j is worth more & fits in place of i
+                int second = rng.nextInt(n);
+                for (int t = 0; t < n && checked < this.moveBudget && made < 0; t++) {
+                    int i = (start + t) % n;
+                    if (!solution.get(i)) {
+                        continue;
+                    }
+                    for (int u = 0; u < n && checked < this.moveBudget; u++) {
+                        int j = (second + u) % n;
+                        if (solution.get(j)) {
+                            continue;
+                        }
+                        checked++;
+                        if (values[j] > values[i] && solution.getWeight() - weights[i] + weights[j] <= instance.capacity) {
+                            solution.set(i, false);
+                            solution.set(j, true);
+                            made = i;
+                            break;
+                        }
+                    }
+                }
+            }
+            if (made < 0) {
+                break; // local optimum (or out of budget)
+            }
+            improvements++;
+        }
+        return improvements;
+    }
+}
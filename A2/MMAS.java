@@ -0,0 +1,285 @@
+// Tayla Orsmond u21467456
+// MAX-MIN Ant System class to solve large instances of the knapsack problem
+// Each ant only chooses from a candidate list: the candidateSize best value / weight ratio items that still fit, refilled from the
+// next items in ratio order as items are taken (or no longer fit), so a choice costs O(candidateSize) instead of O(n)
+// Only the best solution of each iteration deposits pheromone, and the trails are kept between tauMin and tauMax,
+// which are derived from the best solution so far (tauMax = best / rho, tauMin from the probability pBest of building the best solution)
+// The trails are reset to tauMax when the best solution has not improved for stagnation iterations
+// Evaporation is applied lazily: a trail is only updated when the item is deposited on, and decays from the iteration it was last set
+// The trails (& weights, heuristics) are stored in ratio order, so the ants read them sequentially as they go down the candidate list
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class MMAS extends Solver {
+    private final int numAnts; // number of ants
+    private final int numIterations; // max no. of iterations
+    private final double alpha; // pheromone weight
+    private final double beta; // heuristic weight
+    private final double rho; // pheromone evaporation rate
+    private final double pBest; // probability of building the best solution once the trails have converged (sets tauMin)
+    private final int candidateSize; // no. of items each ant chooses from
+    private final int stagnation; // no. of iterations without improvement before the trails are reset
+
+    private double[] trails; // pheromone trail of the item at each position of the ratio order when it was last set (before evaporation since then)
+    private int[] updated; // iteration each trail was last set
+    private double[] decay; // decay[t] = (1 - rho)^t
+    private int[] rank; // position of each item in the ratio order
+    private double[] weights; // weight of the item at each position of the ratio order
+    private double[] heuristicsBeta; // ratio^beta of the item at each position of the ratio order
+    private double tauMax;
+    private double tauMin;
+    private int resetAt; // iteration the trails were last reset to tauMax (trails set before then are tauMax at resetAt)
+    private int lastImprovement; // iteration the best solution last improved
+    private Genome[] solutions; // solutions constructed by each ant
+    private int[] candidates; // candidate list as positions in the ratio order (scratch for constructSolution)
+    private double[] attractiveness; // attractiveness of each candidate (scratch for constructSolution)
+
+    // Constructors
+    public MMAS() {
+        this(10, 200, 1.0, 2.0, 0.1, 0.05, 20, 30);
+    }
+
+    public MMAS(int numAnts, int numIterations, double alpha, double beta, double rho, double pBest, int candidateSize, int stagnation) {
+        super();
+        this.numAnts = numAnts;
+        this.numIterations = numIterations;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.rho = rho;
+        this.pBest = pBest;
+        this.candidateSize = candidateSize;
+        this.stagnation = stagnation;
+    }
+
+    // Helpers
+    public void clear() {
+        super.clear();
+        this.trails = null;
+        this.updated = null;
+        this.rank = null;
+        this.weights = null;
+        this.heuristicsBeta = null;
+        this.solutions = null;
+    }
+
+    public void setInstance(Instance instance) {
+        super.setInstance(instance);
+        this.trails = new double[this.numItems];
+        this.updated = new int[this.numItems];
+        this.decay = new double[this.numIterations + 2];
+        for (int t = 0; t < this.decay.length; t++) {
+            this.decay[t] = Math.pow(1 - this.rho, t);
+        }
+        this.rank = new int[this.numItems];
+        this.weights = new double[this.numItems];
+        this.heuristicsBeta = new double[this.numItems];
+        for (int k = 0; k < this.numItems; k++) {
+            int i = instance.order[k];
+            this.rank[i] = k;
+            this.weights[k] = instance.weights[i];
+            this.heuristicsBeta[k] = Math.pow(instance.ratios[i], this.beta);
+        }
+        this.solutions = new Genome[this.numAnts];
+        for (int i = 0; i < this.numAnts; i++) {
+            this.solutions[i] = new Genome(this.instance);
+        }
+        this.candidates = new int[this.candidateSize];
+        this.attractiveness = new double[this.candidateSize];
+    }
+
+    public String getParameters() {
+        return "numAnts=" + this.numAnts + ";numIterations=" + this.numIterations + ";alpha=" + this.alpha + ";beta=" + this.beta + ";rho=" + this.rho
+                + ";pBest=" + this.pBest + ";candidateSize=" + this.candidateSize + ";stagnation=" + this.stagnation;
+    }
+
+    // Start from the greedy solution (its fitness sets the first bounds) with every trail at tauMax
+    public void initialise() {
+        Genome greedy = new Genome(this.instance);
+        for (int i : this.instance.order) {
+            if (greedy.getWeight() + this.instance.weights[i] <= this.capacity) {
+                greedy.set(i, true);
+            }
+        }
+        calculateFitness(greedy);
+        calculateBounds();
+        Arrays.fill(this.updated, -1); // no trail has been set yet, so every trail is tauMax at resetAt
+        this.resetAt = 0;
+        this.lastImprovement = 0;
+    }
+
+    double getTauMax() {
+        return this.tauMax;
+    }
+
+    // tauMax = best / rho (the limit of a trail that is deposited on every iteration)
+    // tauMin: when every trail is at a bound, the best solution is built with probability pBest (candidateSize / 2 choices per step on average)
+    private void calculateBounds() {
+        this.tauMax = getBestFitness() / this.rho;
+        double root = Math.pow(this.pBest, 1.0 / Math.max(1, this.numItems));
+        double choices = Math.max(2.0, this.candidateSize / 2.0);
+        this.tauMin = Math.min(this.tauMax, this.tauMax * (1 - root) / ((choices - 1) * root));
+    }
+
+    // Trail of the item at position k of the ratio order at iteration t (evaporated since it was last set, within the bounds)
+    double trail(int k, int t) {
+        double tau = this.updated[k] < this.resetAt ? this.tauMax * this.decay[t - this.resetAt] : this.trails[k] * this.decay[t - this.updated[k]];
+        return Math.max(this.tauMin, Math.min(this.tauMax, tau));
+    }
+
+    // Construct a solution from the candidate list (O(n) to scan the ratio order once + O(candidateSize) per item added)
+    private void constructSolution(Genome solution, int t) {
+        int[] order = this.instance.order;
+        double[] weights = this.weights;
+        solution.clear();
+        int count = 0;
+        int next = 0; // next item (in ratio order) to add to the candidate list
+        while (true) {
+            // Drop the candidates that no longer fit, then fill the list up with the next items that fit
+            // (an item that does not fit never fits later, since the remaining capacity only shrinks)
+            // The trails do not change during an iteration, so the attractiveness of a candidate is calculated once, as it is added
+            for (int c = count - 1; c >= 0; c--) {
+                if (solution.getWeight() + weights[this.candidates[c]] > this.capacity) {
+                    count--;
+                    this.candidates[c] = this.candidates[count];
+                    this.attractiveness[c] = this.attractiveness[count];
+                }
+            }
+            while (count < this.candidateSize && next < this.numItems) {
+                int k = next++;
+                if (solution.getWeight() + weights[k] <= this.capacity) {
+                    this.candidates[count] = k;
+                    this.attractiveness[count] = (this.alpha == 1.0 ? trail(k, t) : Math.pow(trail(k, t), this.alpha)) * this.heuristicsBeta[k];
+                    count++;
+                }
+            }
+            if (count == 0) {
+                return;
+            }
+            // Roulette wheel over the candidates
+            double total = 0.0;
+            for (int c = 0; c < count; c++) {
+                total += this.attractiveness[c];
+            }
+            double target = this.rng.nextDouble() * total;
+            int chosen = count - 1;
+            for (int c = 0; c < count - 1; c++) {
+                target -= this.attractiveness[c];
+                if (target < 0) {
+                    chosen = c;
+                    break;
+                }
+            }
+            solution.set(order[this.candidates[chosen]], true);
+            count--;
+            this.candidates[chosen] = this.candidates[count];
+            this.attractiveness[chosen] = this.attractiveness[count];
+        }
+    }
+
+    // Evaporate all the trails (lazily) & deposit the iteration's best solution, then update the bounds & reset the trails on stagnation
+    private void updatePheromones(Genome iterationBest, int t) {
+        for (int i = iterationBest.nextSetBit(0); i >= 0; i = iterationBest.nextSetBit(i + 1)) {
+            int k = this.rank[i];
+            double tau = trail(k, t + 1) + iterationBest.getFitness();
+            this.trails[k] = Math.max(this.tauMin, Math.min(this.tauMax, tau));
+            this.updated[k] = t + 1;
+        }
+        calculateBounds();
+        if (t + 1 - this.lastImprovement >= this.stagnation) {
+            this.resetAt = t + 1;
+            this.lastImprovement = t + 1;
+        }
+    }
+
+    // Solve the problem
+    public void solve() {
+        // Start timer & initialise (skipped when resuming from a checkpoint)
+        if (startSolve()) {
+            this.initialise();
+        }
+
+        for (int t = (int) this.iterations; t < this.numIterations && !terminated(); t++) {
+            this.checkpoint();
+            this.iterations++;
+            double previousBest = getBestFitness();
+            Genome iterationBest = null;
+            for (Genome solution : this.solutions) {
+                constructSolution(solution, t);
+                calculateFitness(solution);
+                if (iterationBest == null || solution.getFitness() > iterationBest.getFitness()) {
+                    iterationBest = solution;
+                }
+            }
+            if (getBestFitness() > previousBest) {
+                this.lastImprovement = t + 1;
+            }
+            updatePheromones(iterationBest, t);
+            sample();
+        }
+
+        // Stop timer
+        this.finishSolve();
+    }
+
+    protected double diversity() {
+        return meanDistance(Arrays.asList(this.solutions));
+    }
+
+    protected double averageFitness() {
+        double total = 0.0;
+        for (Genome solution : this.solutions) {
+            total += solution.getFitness();
+        }
+        return total / this.numAnts;
+    }
+
+    // Entropy of the trails as the ants see them at the next iteration (O(n), only when telemetry is on)
+    protected double entropy() {
+        int t = (int) this.iterations;
+        double total = 0.0;
+        double weightedLogs = 0.0;
+        for (int k = 0; k < this.numItems; k++) {
+            double trail = trail(k, t);
+            total += trail;
+            weightedLogs += trail > 0 ? trail * Math.log(trail) : 0.0;
+        }
+        return Telemetry.entropy(total, weightedLogs, this.numItems);
+    }
+
+    // Checkpoint state: the trails (& when they were set), the reset & improvement iterations, the ants' solutions and the best solution
+    protected void writeState(DataOutputStream out) throws IOException {
+        super.writeState(out);
+        Checkpoint.writeDoubles(out, this.trails);
+        Checkpoint.writeInts(out, this.updated);
+        out.writeInt(this.resetAt);
+        out.writeInt(this.lastImprovement);
+        ArrayList<Genome> written = new ArrayList<>();
+        for (Genome solution : this.solutions) {
+            Checkpoint.writeBits(out, solution);
+            written.add(solution);
+        }
+        writeSolution(out, getBestSolution(), written);
+    }
+
+    protected boolean readState(DataInputStream in) throws IOException {
+        if (!super.readState(in)) {
+            return false;
+        }
+        this.trails = Checkpoint.readDoubles(in);
+        this.updated = Checkpoint.readInts(in);
+        this.resetAt = in.readInt();
+        this.lastImprovement = in.readInt();
+        ArrayList<Genome> read = new ArrayList<>();
+        for (int i = 0; i < this.numAnts; i++) {
+            this.solutions[i] = Checkpoint.readBits(in, this.instance);
+            read.add(this.solutions[i]);
+        }
+        setBestSolution(readSolution(in, read));
+        calculateBounds();
+        return true;
+    }
+}
@@ -0,0 +1,44 @@
+// Tayla Orsmond u21467456
+// MMASTest checks that the MAX-MIN trails start at tauMax (before the first deposit every item's trail is the upper bound)
+// Usage: java MMASTest [no. of seeds]  (exits with status 1 if any instance fails)
+
+import java.util.ArrayList;
+import java.util.Random;
+
+public class MMASTest {
+    public static void main(String[] args) {
+        int numSeeds = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        int failed = 0;
+        for (long seed = 1; seed <= numSeeds; seed++) {
+            MMAS mmas = new MMAS();
+            mmas.setItems(instance(60, seed));
+            mmas.setSeed(seed);
+            mmas.initialise();
+            for (int k = 0; k < 60; k++) {
+                if (mmas.trail(k, 0) != mmas.getTauMax()) {
+                    failed++;
+                    System.out.println("[MMASTest] seed " + seed + ": trail " + k + " starts at " + mmas.trail(k, 0) + " instead of tauMax " + mmas.getTauMax());
+                    break;
+                }
+            }
+        }
+        System.out.println("[MMASTest] " + (numSeeds - failed) + " / " + numSeeds + " instances passed");
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    // Random instance in the format of the instance files (the capacity is a third of the total weight)
+    private static ArrayList<String> instance(int numItems, long seed) {
+        Random rng = new Random(seed);
+        ArrayList<String> data = new ArrayList<>();
+        ArrayList<String> items = new ArrayList<>();
+        int total = 0;
+        for (int i = 0; i < numItems; i++) {
+            int weight = 1 + rng.nextInt(100);
+            total += weight;
+            items.add((1 + rng.nextInt(100)) + " " + weight);
+        }
+        data.add(numItems + " " + total / 3);
+        data.addAll(items);
+        return data;
+    }
+}
@@ -1,15 +1,92 @@
+import java.io.File;
 import java.util.ArrayList;
 import java.util.HashMap;
 
 public class Main {
-    private static String dataset = "Knapsack Instances";
+    protected static String dataset = "Knapsack Instances";
+    private static String results = "Solutions/results.csv"; // structured results (one record per run)
+    private static long seed = 2109626023L; // seed used for every instance (repeatable & cacheable runs)
+    private static boolean steadyState = false; // steady state GA (--steady-state)
+    private static LocalSearch localSearch = null; // memetic GA: local search on 10% of the children (--memetic)
+    private static boolean reduce = false; // fix the items that are decided by the bounds before solving (--reduce)
+    private static int parallelAnts = 0; // ants of the parallel colony (--parallel-aco, 0 = sequential ACO)
+    private static int stagnation = 0; // the GA, ACO & MMAS always stop at the optimum, and also after this many generations / iterations
+    private static long timeLimit = 0; // without improvement, after this many ms, or once the diversity is below minDiversity (0 = off)
+    private static double minDiversity = 0.0;
+    private static Telemetry telemetry = null; // per generation / iteration samples of the GA, ACO & MMAS (--telemetry=path)
+    private static Initializer initializer = new Initializer(Initializer.Strategy.MIXED); // half random & half randomized greedy starting solutions
+    private static ResultCache cache; // unchanged instances are not solved again
+    private static String checkpoints = "Solutions/Checkpoints"; // interrupted solves are resumed from here
+    private static long checkpointInterval = 60000; // ms
     public static void main(String[] args) {
         System.out.println("========== COS 314 - Assignment 2 - Knapsack Problem ==========");
         Loader loader = new Loader();
+        new File(results).delete();
+        // --no-cache disables the result cache, --clear-cache invalidates all entries, --islands also runs the island model GA
+        // --parallel-aco runs the ACO as a parallel colony (more ants, built on all the cores), --parallel-aco=N with N ants
+        // --steady-state runs the GA in steady state (children replace the worst individuals in place)
+        // --memetic improves a share of the GA's children with local search
+        // --reduce fixes the items the bounds decide before the GA, ACO & MMAS search an instance
+        // --stagnation=G stops the GA, ACO & MMAS after G generations / iterations without improvement, --time-limit=ms after ms,
+        // --min-diversity=d once the mean distance to the fittest solution is below a share d of the items (they always stop at the optimum)
+        // --telemetry=path writes a sample of the GA, ACO & MMAS searches after every generation / iteration to path (.csv or .jsonl)
+        // --mmas also solves every instance with the MAX-MIN ant system
+        // --exact also solves every instance exactly with the DP & branch and bound, and checks the optima against them
+        cache = new ResultCache("Solutions/cache.txt", 10000);
+        boolean islands = false;
+        boolean exact = false;
+        boolean mmas = false;
+        for (String arg : args) {
+            if (configure(arg)) {
+                continue;
+            } else if (arg.equals("--no-cache")) {
+                cache = null;
+            } else if (arg.equals("--clear-cache") && cache != null) {
+                cache.clear();
+            } else if (arg.equals("--islands")) {
+                islands = true;
+            } else if (arg.startsWith("--telemetry=")) {
+                try {
+                    telemetry = new Telemetry(arg.substring("--telemetry=".length()), 1 << 16);
+                } catch (Exception e) {
+                    System.out.println("[Main] Error opening telemetry file: " + e);
+                }
+            } else if (arg.equals("--mmas")) {
+                mmas = true;
+            } else if (arg.equals("--exact")) {
+                exact = true;
+            }
+        }
         System.out.println("========== Running GA... ==========");
         runGA(loader);
         System.out.println("========== Running ACO... ==========");
         runACO(loader);
+        if (islands) {
+            System.out.println("========== Running Island GA... ==========");
+            runIslandGA(loader);
+        }
+        if (mmas) {
+            System.out.println("========== Running MMAS... ==========");
+            runMMAS(loader);
+        }
+        if (exact) {
+            System.out.println("========== Running DP... ==========");
+            runDP(loader);
+            System.out.println("========== Running Branch & Bound... ==========");
+            runBranchBound(loader);
+        }
+        if (telemetry != null) {
+            telemetry.close();
+            System.out.println("Telemetry written to " + telemetry.getPath() + (telemetry.getDropped() > 0 ? " (" + telemetry.getDropped() + " samples dropped)" : ""));
+        }
+        if (cache != null) {
+            cache.save();
+            System.out.println("Result cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses (" + cache.size() + " entries)");
+        }
+        System.out.println("========== Summary ==========");
+        Summarizer summarizer = new Summarizer();
+        summarizer.summarize(results);
+        summarizer.writeSummary("Solutions/Summary_Report.txt");
         
         System.out.println("The results for every instance have been written to the Solutions folder, as well as a summary for each dataset.");
         
@@ -22,20 +99,99 @@ public class Main {
         }        
     }
 
+    // Solve the instance loaded into the solver, or restore its result from the result cache
+    // Long solves are checkpointed periodically, and resumed from the checkpoint if the program was interrupted
+    // A solver that stops at the optimum depends on the optimum in Optima.txt, so it is part of the key (a corrected optimum is solved again)
+    public static void solve(Solver solver, String hash) {
+        String parameters = solver.getParameters() + (solver.getReduction() != null ? ";reduced" : "")
+                + (solver.getTermination() != null ? ";termination=" + solver.getTermination() + ";optimum=" + solver.getOptimalFitness() : "");
+        String key = ResultCache.key(hash, solver.getAlgorithm(), parameters, solver.getSeed());
+        String entry = cache == null ? null : cache.get(key);
+        if (entry != null) {
+            solver.restore(entry);
+            return;
+        }
+        new File(checkpoints).mkdirs();
+        solver.setCheckpoint(checkpoints + "/" + solver.getAlgorithm() + "_" + hash.substring(0, 16) + "_" + solver.getSeed() + ".ckpt", checkpointInterval);
+        solver.resume();
+        solver.solve();
+        if (cache != null) {
+            cache.put(key, solver.getCacheEntry());
+        }
+    }
+
+    // Apply an option that configures the solvers (shared with the benchmark), returns false if it is not one
+    public static boolean configure(String arg) {
+        if (arg.equals("--parallel-aco")) {
+            parallelAnts = 64;
+        } else if (arg.startsWith("--parallel-aco=")) {
+            parallelAnts = Integer.parseInt(arg.substring("--parallel-aco=".length()));
+        } else if (arg.equals("--steady-state")) {
+            steadyState = true;
+        } else if (arg.equals("--memetic")) {
+            localSearch = new LocalSearch(1000, 0.1);
+        } else if (arg.equals("--reduce")) {
+            reduce = true;
+        } else if (arg.startsWith("--stagnation=")) {
+            stagnation = Integer.parseInt(arg.substring("--stagnation=".length()));
+        } else if (arg.startsWith("--time-limit=")) {
+            timeLimit = Long.parseLong(arg.substring("--time-limit=".length()));
+        } else if (arg.startsWith("--min-diversity=")) {
+            minDiversity = Double.parseDouble(arg.substring("--min-diversity=".length()));
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    // The solvers as they are configured (every run of an algorithm, the branch & bound's GA and the benchmark solve with the same settings)
+    public static GA createGA() {
+        GA ga = new GA(true, steadyState);
+        ga.setInitializer(initializer);
+        ga.setLocalSearch(localSearch);
+        ga.setReduce(reduce);
+        ga.setTermination(createTermination());
+        return ga;
+    }
+
+    // The parallel colony has a fixed no. of ants (not one per core), so its results do not depend on the machine
+    public static ACO createACO() {
+        ACO aco = parallelAnts > 0 ? new ACO(parallelAnts, true) : new ACO();
+        aco.setInitializer(initializer);
+        aco.setReduce(reduce);
+        aco.setTermination(createTermination());
+        return aco;
+    }
+
+    public static MMAS createMMAS() {
+        MMAS mmas = new MMAS();
+        mmas.setReduce(reduce);
+        mmas.setTermination(createTermination());
+        return mmas;
+    }
+
+    private static Termination createTermination() {
+        return new Termination(true, stagnation, timeLimit, minDiversity);
+    }
+
     public static void runGA(Loader loader) {
-        GA ga = new GA();
+        GA ga = createGA();
+        ga.setTelemetry(telemetry);
         try{
             HashMap<String, Double> optima = loader.loadOptima("Optima.txt");
             ArrayList<String> instances = loader.loadDataset(dataset);
             for (String instance : instances) {
                 ArrayList<String> data = loader.readFile(dataset + "/" + instance + ".txt");
                 ga.clear();
+                ga.setDataset(dataset);
                 ga.setInstanceName(instance);
                 ga.setOptimal(optima.get(instance));
                 ga.setItems(data);
+                ga.setSeed(seed);
 
-                ga.solve();
+                solve(ga, ResultCache.hash(data));
                 ga.writeResults("Solutions/GA/" + instance + "_SOL.txt");
+                ga.writeRecord(results);
             }
         } catch (Exception e) {
             System.out.println("[GA] Error: " + e);
@@ -46,19 +202,23 @@ public class Main {
     }
 
     public static void runACO(Loader loader){
-        ACO aco = new ACO();
+        ACO aco = createACO();
+        aco.setTelemetry(telemetry);
         try{
             HashMap<String, Double> optima = loader.loadOptima("Optima.txt");
             ArrayList<String> instances = loader.loadDataset(dataset);
             for (String instance : instances) {
                 ArrayList<String> data = loader.readFile(dataset + "/" + instance + ".txt");
                 aco.clear();
+                aco.setDataset(dataset);
                 aco.setInstanceName(instance);
                 aco.setOptimal(optima.get(instance));
                 aco.setItems(data);
+                aco.setSeed(seed);
 
-                aco.solve();
+                solve(aco, ResultCache.hash(data));
                 aco.writeResults("Solutions/ACO/" + instance + "_SOL.txt");
+                aco.writeRecord(results);
             }
         } catch (Exception e) {
             System.out.println("[ACO] Error: " + e);
@@ -68,4 +228,142 @@ public class Main {
         aco.summarize("Solutions/ACO/ACO_Summary.txt", "ACO");
     }
 
+    public static void runIslandGA(Loader loader){
+        IslandGA islandGA = new IslandGA();
+        islandGA.setInitializer(initializer);
+        islandGA.setLocalSearch(localSearch);
+        islandGA.setReduce(reduce);
+        try{
+            HashMap<String, Double> optima = loader.loadOptima("Optima.txt");
+            ArrayList<String> instances = loader.loadDataset(dataset);
+            new File("Solutions/IslandGA").mkdirs();
+            for (String instance : instances) {
+                ArrayList<String> data = loader.readFile(dataset + "/" + instance + ".txt");
+                islandGA.clear();
+                islandGA.setDataset(dataset);
+                islandGA.setInstanceName(instance);
+                islandGA.setOptimal(optima.get(instance));
+                islandGA.setItems(data);
+                islandGA.setSeed(seed);
+
+                solve(islandGA, ResultCache.hash(data));
+                islandGA.writeResults("Solutions/IslandGA/" + instance + "_SOL.txt");
+                islandGA.writeRecord(results);
+            }
+        } catch (Exception e) {
+            System.out.println("[IslandGA] Error: " + e);
+            e.printStackTrace();
+        }
+
+        islandGA.summarize("Solutions/IslandGA/IslandGA_Summary.txt", "IslandGA");
+    }
+
+    public static void runMMAS(Loader loader){
+        MMAS mmas = createMMAS();
+        mmas.setTelemetry(telemetry);
+        try{
+            HashMap<String, Double> optima = loader.loadOptima("Optima.txt");
+            ArrayList<String> instances = loader.loadDataset(dataset);
+            new File("Solutions/MMAS").mkdirs();
+            for (String instance : instances) {
+                ArrayList<String> data = loader.readFile(dataset + "/" + instance + ".txt");
+                mmas.clear();
+                mmas.setDataset(dataset);
+                mmas.setInstanceName(instance);
+                mmas.setOptimal(optima.get(instance));
+                mmas.setItems(data);
+                mmas.setSeed(seed);
+
+                solve(mmas, ResultCache.hash(data));
+                mmas.writeResults("Solutions/MMAS/" + instance + "_SOL.txt");
+                mmas.writeRecord(results);
+            }
+        } catch (Exception e) {
+            System.out.println("[MMAS] Error: " + e);
+            e.printStackTrace();
+        }
+
+        mmas.summarize("Solutions/MMAS/MMAS_Summary.txt", "MMAS");
+    }
+
+    // The DP is not cached, so the optima are checked again on every run
+    public static void runDP(Loader loader){
+        DP dp = new DP();
+        try{
+            HashMap<String, Double> optima = loader.loadOptima("Optima.txt");
+            ArrayList<String> instances = loader.loadDataset(dataset);
+            new File("Solutions/DP").mkdirs();
+            for (String instance : instances) {
+                ArrayList<String> data = loader.readFile(dataset + "/" + instance + ".txt");
+                dp.clear();
+                dp.setDataset(dataset);
+                dp.setInstanceName(instance);
+                dp.setOptimal(optima.get(instance));
+                dp.setItems(data);
+                dp.setSeed(seed);
+
+                dp.solve();
+                if (dp.isExact()) {
+                    checkOptimum(dp, optima.get(instance));
+                }
+                dp.writeResults("Solutions/DP/" + instance + "_SOL.txt");
+                dp.writeRecord(results);
+            }
+        } catch (Exception e) {
+            System.out.println("[DP] Error: " + e);
+            e.printStackTrace();
+        }
+
+        dp.summarize("Solutions/DP/DP_Summary.txt", "DP");
+    }
+
+    // Branch & bound starts from the best solution of the GA (restored from the result cache if it was solved already)
+    // Like the DP, it is not cached
+    public static void runBranchBound(Loader loader){
+        BranchBound branchBound = new BranchBound();
+        GA ga = createGA();
+        try{
+            HashMap<String, Double> optima = loader.loadOptima("Optima.txt");
+            ArrayList<String> instances = loader.loadDataset(dataset);
+            new File("Solutions/BranchBound").mkdirs();
+            for (String instance : instances) {
+                ArrayList<String> data = loader.readFile(dataset + "/" + instance + ".txt");
+                ga.clear();
+                ga.setDataset(dataset);
+                ga.setInstanceName(instance);
+                ga.setOptimal(optima.get(instance));
+                ga.setItems(data);
+                ga.setSeed(seed);
+                solve(ga, ResultCache.hash(data));
+
+                branchBound.clear();
+                branchBound.setDataset(dataset);
+                branchBound.setInstanceName(instance);
+                branchBound.setOptimal(optima.get(instance));
+                branchBound.setItems(data);
+                branchBound.setSeed(seed);
+                branchBound.setIncumbent(ga.getOriginalSolution());
+
+                branchBound.solve();
+                if (branchBound.isExact()) {
+                    checkOptimum(branchBound, optima.get(instance));
+                }
+                branchBound.writeResults("Solutions/BranchBound/" + instance + "_SOL.txt");
+                branchBound.writeRecord(results);
+            }
+        } catch (Exception e) {
+            System.out.println("[BranchBound] Error: " + e);
+            e.printStackTrace();
+        }
+
+        branchBound.summarize("Solutions/BranchBound/BranchBound_Summary.txt", "BranchBound");
+    }
+
+    // Warn if an exact solver found a different optimum than the one in Optima.txt
+    private static void checkOptimum(Solver solver, Double optimal) {
+        if (optimal != null && Math.abs(solver.getBestFitness() - optimal) > 1e-6 * Math.max(1.0, optimal)) {
+            System.out.println("[" + solver.getAlgorithm() + "] Warning: the optimum of " + solver.getInstanceName() + " is " + solver.getBestFitness() + ", not " + optimal + " (Optima.txt)");
+        }
+    }
+
 }
@@ -0,0 +1,189 @@
+// Tayla Orsmond u21467456
+// Reduction class fixes the items that are in (or out of) every optimal solution before the instance is searched
+// The lower bound is the value of the greedy solution (the items added in ratio order if they fit)
+// For each item j, the Dantzig (LP relaxation) bound is worked out with j forced in (UB1) & forced out (UB0):
+// if UB1 < lower bound, j is in no optimal solution (fixed out); if UB0 < lower bound, j is in every optimal solution (fixed in)
+// Both bounds come from prefix sums over the ratio order & a binary search for the break item, so the reduction is O(n log n)
+// The free items make up the reduced instance (capacity less the weight fixed in, offset = value fixed in), which has the same optimum
+// Solutions of the reduced instance are expanded back to the original items with expand
+
+import java.util.ArrayList;
+
+public class Reduction {
+    private static final double tolerance = 1e-9; // relative to the lower bound (the prefix sums are rounded)
+
+    private final Instance original;
+    private final Instance reduced;
+    private final int[] free; // free[k] = original index of item k of the reduced instance
+    private final int[] fixedIn; // original indices of the items fixed in the knapsack
+    private final int numFixedOut;
+    private final double lowerBound; // value of the greedy solution
+
+    // Sorted (ratio order) copies of the items & their prefix sums, used by bound
+    private final double[] p;
+    private final double[] w;
+    private final double[] sumP; // sumP[k] = value of the items 0..k-1 of the ratio order
+    private final double[] sumW; // sumW[k] = weight of the items 0..k-1 of the ratio order
+
+    // Constructors
+    public Reduction(Instance instance) {
+        this.original = instance;
+        int n = instance.numItems;
+        int[] order = instance.order;
+        this.p = new double[n];
+        this.w = new double[n];
+        this.sumP = new double[n + 1];
+        this.sumW = new double[n + 1];
+        boolean integral = true;
+        for (int k = 0; k < n; k++) {
+            this.p[k] = instance.values[order[k]];
+            this.w[k] = instance.weights[order[k]];
+            this.sumP[k + 1] = this.sumP[k] + this.p[k];
+            this.sumW[k + 1] = this.sumW[k] + this.w[k];
+            integral &= this.p[k] == Math.rint(this.p[k]);
+        }
+
+        // Greedy solution (lower bound)
+        double greedyWeight = 0.0;
+        double greedyValue = 0.0;
+        for (int k = 0; k < n; k++) {
+            if (greedyWeight + this.w[k] <= instance.capacity) {
+                greedyWeight += this.w[k];
+                greedyValue += this.p[k];
+            }
+        }
+        this.lowerBound = greedyValue;
+        double eps = tolerance * Math.max(1.0, greedyValue);
+
+        // Fix the items whose bounds are below the lower bound (1 = fixed in, -1 = fixed out, 0 = free)
+        // With whole number values the optimum is a whole number, so the bounds are rounded down
+        int[] fixed = new int[n];
+        int numFixedIn = 0;
+        int numFixedOut = 0;
+        double fixedWeight = 0.0;
+        double fixedValue = 0.0;
+        long scaledWeight = 0; // the same totals in fixed point (exact)
+        long scaledValue = 0;
+        for (int r = 0; r < n; r++) {
+            double in = this.w[r] <= instance.capacity ? this.p[r] + bound(instance.capacity - this.w[r], r) : Double.NEGATIVE_INFINITY;
+            double out = bound(instance.capacity, r);
+            if (integral) {
+                in = Math.floor(in + eps);
+                out = Math.floor(out + eps);
+            }
+            if (in < greedyValue - eps) {
+                fixed[r] = -1;
+                numFixedOut++;
+            } else if (out < greedyValue - eps) {
+                fixed[r] = 1;
+                numFixedIn++;
+                fixedWeight += this.w[r];
+                fixedValue += this.p[r];
+                if (instance.scale > 0) {
+                    scaledWeight += instance.scaledWeights[order[r]];
+                    scaledValue += instance.scaledValues[order[r]];
+                }
+            }
+        }
+        this.numFixedOut = numFixedOut;
+
+        // Reduced instance: the free items (in their original order) & the capacity left by the items fixed in
+        this.fixedIn = new int[numFixedIn];
+        this.free = new int[n - numFixedIn - numFixedOut];
+        ArrayList<Integer> fixedInItems = new ArrayList<>();
+        boolean[] isFree = new boolean[n];
+        for (int r = 0; r < n; r++) {
+            if (fixed[r] == 1) {
+                fixedInItems.add(order[r]);
+            }
+            isFree[order[r]] = fixed[r] == 0;
+        }
+        for (int k = 0; k < numFixedIn; k++) {
+            this.fixedIn[k] = fixedInItems.get(k);
+        }
+        double[] values = new double[this.free.length];
+        double[] weights = new double[this.free.length];
+        int count = 0;
+        for (int i = 0; i < n; i++) {
+            if (isFree[i]) {
+                this.free[count] = i;
+                values[count] = instance.values[i];
+                weights[count] = instance.weights[i];
+                count++;
+            }
+        }
+        // The capacity & offset of a fixed point instance are worked out exactly, so the reduced instance is also fixed point
+        double capacity = instance.capacity - fixedWeight;
+        double offset = instance.offset + fixedValue;
+        if (instance.scale > 0) {
+            capacity = (double) (instance.scaledCapacity - scaledWeight) / instance.scale;
+            offset = (double) (instance.scaledOffset + scaledValue) / instance.scale;
+        }
+        this.reduced = new Instance(values, weights, capacity, offset);
+    }
+
+    // Getters
+    public Instance getOriginal() {
+        return this.original;
+    }
+
+    public Instance getReduced() {
+        return this.reduced;
+    }
+
+    public int getNumFixedIn() {
+        return this.fixedIn.length;
+    }
+
+    public int getNumFixedOut() {
+        return this.numFixedOut;
+    }
+
+    public double getLowerBound() {
+        return this.lowerBound;
+    }
+
+    public String toString() {
+        return "fixedIn=" + this.fixedIn.length + ",fixedOut=" + this.numFixedOut + ",free=" + this.free.length + " of " + this.original.numItems;
+    }
+
+    // Dantzig bound on the value of the items other than the one at position r of the ratio order with the given capacity:
+    // the items are taken in ratio order until the break item, which fills the rest of the capacity at its ratio
+    private double bound(double capacity, int r) {
+        int n = this.p.length;
+        double wr = this.w[r];
+        double pr = this.p[r];
+        // Largest s with the weight of the items 0..s-1 (other than r) <= capacity (binary search, the weights only grow with s)
+        int lo = 0;
+        int hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (this.sumW[mid] - (mid > r ? wr : 0.0) <= capacity) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        int s = lo;
+        double weight = this.sumW[s] - (s > r ? wr : 0.0);
+        double value = this.sumP[s] - (s > r ? pr : 0.0);
+        if (s < n && s != r) {
+            value += (capacity - weight) * this.p[s] / this.w[s];
+        }
+        return value;
+    }
+
+    // Solution of the original instance with the items fixed in & the items of the given solution of the reduced instance
+    public Genome expand(Genome solution) {
+        Genome expanded = new Genome(this.original);
+        for (int i : this.fixedIn) {
+            expanded.set(i, true);
+        }
+        if (solution != null) {
+            for (int k = solution.nextSetBit(0); k >= 0; k = solution.nextSetBit(k + 1)) {
+                expanded.set(this.free[k], true);
+            }
+        }
+        return expanded;
+    }
+}
@@ -0,0 +1,171 @@
+// Tayla Orsmond u21467456
+// ResultCache class stores the results of solved instances on disk so that unchanged instances do not have to be solved again
+// Entries are keyed by (hash of the instance's content, algorithm, parameters, seed) and evicted least-recently-used first
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class ResultCache {
+    // Variables ====================
+    private final String path; // The path to the cache file
+    private final int maxEntries; // The maximum no. of entries kept (LRU size cap)
+    private final LinkedHashMap<String, String> entries; // key -> entry (in access order)
+    private int hits; // The no. of cache hits
+    private int misses; // The no. of cache misses
+
+    // Constructor ====================
+    /**
+     * Create a cache backed by a file, loading any existing entries
+     * @param path The path to the cache file
+     * @param maxEntries The maximum no. of entries to keep
+     */
+    public ResultCache(String path, int maxEntries) {
+        this.path = path;
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > ResultCache.this.maxEntries;
+            }
+        };
+        load();
+    }
+
+    // Getters ====================
+    public int getHits() {
+        return this.hits;
+    }
+
+    public int getMisses() {
+        return this.misses;
+    }
+
+    public int size() {
+        return this.entries.size();
+    }
+
+    // Helpers ====================
+    /**
+     * Hash the content of an instance (SHA-256)
+     * @param data The lines of the instance file
+     * @return The hash as a hex string
+     */
+    public static String hash(ArrayList<String> data) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String line : data) {
+                digest.update(line.trim().getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            String hex = "";
+            for (byte b : digest.digest()) {
+                hex += String.format("%02x", b);
+            }
+            return hex;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("[ResultCache] SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Build the key of a run
+     * @param hash The hash of the instance's content
+     * @param algorithm The algorithm name
+     * @param parameters The parameters of the algorithm
+     * @param seed The seed of the random number generator
+     * @return The key (String)
+     */
+    public static String key(String hash, String algorithm, String parameters, long seed) {
+        return hash + "|" + algorithm + "|" + parameters + "|" + seed;
+    }
+
+    /**
+     * Look up a run
+     * @param key The key of the run
+     * @return The cached entry, or null on a miss
+     */
+    public String get(String key) {
+        String entry = this.entries.get(key);
+        if (entry == null) {
+            this.misses++;
+        } else {
+            this.hits++;
+        }
+        return entry;
+    }
+
+    /**
+     * Store a run (evicting the least recently used entry if the cache is full)
+     * @param key The key of the run
+     * @param entry The entry to store (may not contain tabs or new lines)
+     * @return void
+     */
+    public void put(String key, String entry) {
+        this.entries.put(key, entry);
+    }
+
+    /**
+     * Invalidate all runs
+     * @return void
+     */
+    public void clear() {
+        this.entries.clear();
+    }
+
+    /**
+     * Load the entries from the cache file (if it exists)
+     * @return void
+     */
+    private void load() {
+        File file = new File(this.path);
+        if (!file.exists()) {
+            return;
+        }
+        try {
+            BufferedReader reader = new BufferedReader(new FileReader(file));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) {
+                    this.entries.put(line.substring(0, tab), line.substring(tab + 1));
+                }
+            }
+            reader.close();
+        } catch (IOException e) {
+            System.out.println("[ResultCache] Error reading CACHE file " + this.path + ": " + e.getMessage());
+            this.entries.clear();
+        }
+    }
+
+    /**
+     * Save the entries to the cache file (least recently used first)
+     * @details Writes to a temporary file and renames it so that an interrupted save never corrupts the cache
+     * @return void
+     */
+    public void save() {
+        File file = new File(this.path);
+        File tmp = new File(this.path + ".tmp");
+        try {
+            FileWriter writer = new FileWriter(tmp);
+            for (Map.Entry<String, String> entry : this.entries.entrySet()) {
+                writer.write(entry.getKey() + "\t" + entry.getValue() + "\n");
+            }
+            writer.close();
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("[ResultCache] Error writing CACHE file " + this.path + ": ");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+// Tayla Orsmond u21467456
+// RouletteTree class for roulette wheel selection in O(log n): a sum tree (segment tree) over the weights of n items
+// Changing the weight of one item (e.g., to 0 to remove it from the wheel) and spinning the wheel both take O(log n)
+// The sums are recalculated from the children (not updated by differences), so removed items never leave rounding errors behind
+
+import java.util.Arrays;
+
+public class RouletteTree {
+    private final int size; // no. of leaves (power of 2)
+    private final double[] tree; // tree[1] = total, children of node k are 2k and 2k + 1, leaf of item i is size + i
+
+    public RouletteTree(int numItems) {
+        int size = 1;
+        while (size < numItems) {
+            size <<= 1;
+        }
+        this.size = size;
+        this.tree = new double[2 * size];
+    }
+
+    // Set the weights of all the items at once (O(n))
+    public void build(double[] weights) {
+        System.arraycopy(weights, 0, this.tree, this.size, weights.length);
+        Arrays.fill(this.tree, this.size + weights.length, 2 * this.size, 0.0);
+        for (int node = this.size - 1; node > 0; node--) {
+            this.tree[node] = this.tree[2 * node] + this.tree[2 * node + 1];
+        }
+    }
+
+    // Set the weight of one item (O(log n))
+    public void set(int item, double weight) {
+        int node = this.size + item;
+        this.tree[node] = weight;
+        for (node >>= 1; node > 0; node >>= 1) {
+            this.tree[node] = this.tree[2 * node] + this.tree[2 * node + 1];
+        }
+    }
+
+    public double get(int item) {
+        return this.tree[this.size + item];
+    }
+
+    // Sum of the weights of all the items
+    public double total() {
+        return this.tree[1];
+    }
+
+    // Spin the wheel: the item whose slice contains r * total (r in [0, 1)), so each item is chosen with probability weight / total
+    // Only items with a weight > 0 are chosen (the total must be > 0)
+    public int sample(double r) {
+        double target = r * this.tree[1];
+        int node = 1;
+        while (node < this.size) {
+            int left = 2 * node;
+            if (target < this.tree[left] || this.tree[left + 1] <= 0.0) {
+                node = left;
+            } else {
+                target -= this.tree[left];
+                node = left + 1;
+            }
+        }
+        return node - this.size;
+    }
+}
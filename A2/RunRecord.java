@@ -0,0 +1,95 @@
+// Tayla Orsmond u21467456
+// RunRecord class holds one structured (machine-readable) result for a single solve of a knapsack instance
+// Records are written as CSV lines so that they can be streamed by the Summarizer (and read by other tools)
+
+public class RunRecord {
+    // The column names of the CSV file (written as the first line of every results file)
+    public static final String HEADER = "dataset,instance,algorithm,seed,result,optimal,status,time,iterations,evaluations,stop";
+
+    private final String dataset;
+    private final String instance;
+    private final String algorithm;
+    private final long seed;
+    private final double result; // best fitness found
+    private final double optimal; // known optimum (NaN if unknown)
+    private final char status; // O = Optimal, S = Sub optimal (Not Optimal)
+    private final long time; // ms
+    private final long iterations; // generations (GA) / iterations (ACO)
+    private final long evaluations; // calls to the fitness function
+    private final String stop; // why the solve stopped (a Termination.Reason)
+
+    // Constructor
+    public RunRecord(String dataset, String instance, String algorithm, long seed, double result, double optimal, long time, long iterations, long evaluations, String stop) {
+        this.dataset = dataset;
+        this.instance = instance;
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.result = result;
+        this.optimal = optimal;
+        this.status = Double.compare(result, optimal) == 0 ? 'O' : 'S';
+        this.time = time;
+        this.iterations = iterations;
+        this.evaluations = evaluations;
+        this.stop = stop;
+    }
+
+    // Getters
+    public String getDataset() {
+        return dataset;
+    }
+
+    public String getInstance() {
+        return instance;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getResult() {
+        return result;
+    }
+
+    public double getOptimal() {
+        return optimal;
+    }
+
+    public boolean isOptimal() {
+        return status == 'O';
+    }
+
+    public long getTime() {
+        return time;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    public String getStop() {
+        return stop;
+    }
+
+    // Convert the record to a CSV line (without a line separator)
+    public String toCSV() {
+        return dataset + "," + instance + "," + algorithm + "," + seed + "," + result + "," + optimal + "," + status + "," + time + "," + iterations + "," + evaluations + "," + stop;
+    }
+
+    // Parse a record from a CSV line written by toCSV (records written before the stop column ran to completion)
+    public static RunRecord fromCSV(String line) {
+        String[] cols = line.split(",");
+        if (cols.length != 10 && cols.length != 11) {
+            throw new IllegalArgumentException("[RunRecord] Malformed record: " + line);
+        }
+        return new RunRecord(cols[0], cols[1], cols[2], Long.parseLong(cols[3]), Double.parseDouble(cols[4]), Double.parseDouble(cols[5]),
+                Long.parseLong(cols[7]), Long.parseLong(cols[8]), Long.parseLong(cols[9]), cols.length == 11 ? cols[10] : "COMPLETED");
+    }
+}
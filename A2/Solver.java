@@ -1,36 +1,101 @@
 //Tayla Orsmond u21467456
 //Parent Solver class to solve instances of the knapsack problem
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
-public class Solver {
+public abstract class Solver {
+    private static final int repairScan = 64; // repair searches the light items directly if there are at most this many
+    protected String dataset;
     protected String instanceName;
 
-    protected int capacity;
+    protected double capacity;
     protected int numItems;
-    protected ArrayList<Item> items;
+    protected Instance instance; // the items (values, weights, ratios) as primitive arrays
+    protected boolean reduce; // fix the items a Reduction can decide before solving
+    protected Reduction reduction; // null = the instance searched is the one loaded
 
     protected Double optimalFitness;
-    protected Double bestFitness;
-    protected Boolean[] bestSolution;
+    protected final AtomicReference<Incumbent> best; // best solution so far (replaced with a compare-and-set, so it can be updated from any thread)
 
-
-    protected ArrayList<String> summaries;
+    protected ArrayList<RunRecord> records;
     protected AtomicLong time;
 
+    protected long seed;
+    protected Random rng;
+    protected long iterations; // generations / iterations run
+    protected long evaluations; // genomes evaluated by calculateFitness (unchanged genomes are not counted again)
+    protected int parallelThreshold; // populations at least this big are evaluated in parallel
+    protected Initializer initializer; // creates the starting solutions (GA) / chooses the start items (ACO)
+    protected Termination termination; // stops a solve early (null = every generation / iteration is run)
+    protected Termination.Reason stopReason; // why the last solve stopped
+    private double lastBest; // best fitness at the last termination check
+    protected Telemetry telemetry; // a sample of the search after every generation / iteration (null = off)
+    private long sampleTime; // when the last sample was recorded (ns)
+    private long sampleEvaluations; // evaluations when the last sample was recorded
+    private long sampleAllocated; // bytes allocated by the solving thread when the last sample was recorded
+    private long lastImprovement; // generation / iteration the best fitness last improved
+
+    protected String checkpointPath; // null = no checkpoints
+    protected long checkpointInterval; // ms between checkpoints
+    protected long lastCheckpoint;
+    protected boolean resumed; // state was loaded from a checkpoint (the next solve continues instead of starting over)
+
     // Constructors
     public Solver() {
-        this.items = new ArrayList<>();
-        this.summaries = new ArrayList<>();
+        this.instance = Instance.empty();
+        this.records = new ArrayList<>();
         this.time = new AtomicLong(0);
+        this.best = new AtomicReference<>(new Incumbent(0.0, null, 0));
+        this.parallelThreshold = 50000;
+        this.initializer = new Initializer(Initializer.Strategy.RANDOM);
+        this.stopReason = Termination.Reason.COMPLETED;
+        this.rng = new Random();
+        setSeed(System.nanoTime());
     }
 
     // Setters
+    public void setDataset(String dataset) {
+        this.dataset = dataset;
+    }
+
+    // Enable periodic checkpoints while solving (path = null disables them)
+    public void setCheckpoint(String path, long interval) {
+        this.checkpointPath = path;
+        this.checkpointInterval = interval;
+    }
+
+    // Seed the random number generator (recorded in the results so a run can be repeated)
+    public void setSeed(long seed) {
+        this.seed = seed;
+        this.rng.setSeed(seed);
+    }
+
+    // Minimum no. of solutions for evaluateAll to evaluate them in parallel (Integer.MAX_VALUE = never)
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    public void setInitializer(Initializer initializer) {
+        this.initializer = initializer;
+    }
+
+    public void setTelemetry(Telemetry telemetry) {
+        this.telemetry = telemetry;
+    }
+
+    public void setTermination(Termination termination) {
+        this.termination = termination;
+    }
+
     public void setInstanceName(String instanceName) {
         this.instanceName = instanceName;
     }
@@ -40,14 +105,30 @@ public class Solver {
     }
 
     public void setItems(ArrayList<String> data) {
-        //First line is item count and capacity respectively
-        this.numItems = Integer.parseInt(data.get(0).split(" ")[0]);
-        this.capacity = Integer.parseInt(data.get(0).split(" ")[1]);
-        //Loop through the rest of the data and add the items to the arraylist (value, weight)
-        for (int i = 1; i < data.size(); i++) {
-            String[] itemData = data.get(i).split(" ");
-            this.items.add(new Item(Double.parseDouble(itemData[0]), Double.parseDouble(itemData[1])));
+        //First line is item count and capacity respectively, then the items (value, weight)
+        Instance instance = Instance.parse(data);
+        this.reduction = null;
+        if (this.reduce) {
+            // The reduced instance is only searched if some items are left free (otherwise there is nothing to evaluate)
+            Reduction reduction = new Reduction(instance);
+            if (reduction.getReduced().numItems > 0) {
+                this.reduction = reduction;
+                instance = reduction.getReduced();
+            }
         }
+        setInstance(instance);
+    }
+
+    // Reduce the instances loaded by setItems (variable fixing) before solving them
+    public void setReduce(boolean reduce) {
+        this.reduce = reduce;
+    }
+
+    // Load an instance that has already been parsed (e.g., shared by several solvers)
+    public void setInstance(Instance instance) {
+        this.instance = instance;
+        this.numItems = instance.numItems;
+        this.capacity = instance.capacity;
     }
 
     // Getters
@@ -55,8 +136,8 @@ public class Solver {
         return instanceName;
     }
 
-    public ArrayList<Item> getItems() {
-        return items;
+    public Instance getInstance() {
+        return instance;
     }
 
     public Double getOptimalFitness() {
@@ -64,106 +145,474 @@ public class Solver {
     }
 
     public Double getBestFitness() {
-        return bestFitness;
+        return this.best.get().getFitness();
+    }
+
+    public Genome getBestSolution() {
+        return this.best.get().getSolution();
+    }
+
+    public Termination getTermination() {
+        return termination;
+    }
+
+    public Termination.Reason getStopReason() {
+        return stopReason;
+    }
+
+    public Reduction getReduction() {
+        return reduction;
+    }
+
+    // Best solution over the items of the instance loaded (expanded if the instance was reduced)
+    public Genome getOriginalSolution() {
+        return this.reduction == null ? getBestSolution() : this.reduction.expand(getBestSolution());
+    }
+
+    public ArrayList<RunRecord> getRecords() {
+        return records;
+    }
+
+    public String getAlgorithm() {
+        return getClass().getSimpleName();
+    }
+
+    public long getSeed() {
+        return seed;
     }
 
-    public Boolean[] getBestSolution() {
-        return bestSolution;
+    public long getTimeToBest() {
+        return this.best.get().getTimeToBest();
     }
 
-    public ArrayList<String> getSummaries() {
-        return summaries;
+    // Structured record of the last solve
+    public RunRecord getRecord() {
+        return new RunRecord(this.dataset, this.instanceName, getAlgorithm(), this.seed, getBestFitness(),
+                this.optimalFitness == null ? Double.NaN : this.optimalFitness, this.time.get(), this.iterations, this.evaluations, this.stopReason.toString());
     }
 
     public AtomicLong getTime() {
         return time;
     }
 
+    // Parameters of the algorithm (part of the result cache key)
+    public String getParameters() {
+        return "";
+    }
+
+    // Entry stored in the result cache: the record followed by the best solution as a bit string
+    public String getCacheEntry() {
+        StringBuilder bits = new StringBuilder(this.numItems);
+        Genome bestSolution = getBestSolution();
+        for (int i = 0; i < this.numItems; i++) {
+            bits.append(bestSolution.get(i) ? '1' : '0');
+        }
+        return getRecord().toCSV() + "\t" + bits;
+    }
+
+    // Restore the result of a solve from a result cache entry (instead of solving the instance again)
+    public void restore(String entry) {
+        String[] parts = entry.split("\t", -1);
+        RunRecord record = RunRecord.fromCSV(parts[0]);
+        this.time.set(record.getTime());
+        this.iterations = record.getIterations();
+        this.evaluations = record.getEvaluations();
+        this.stopReason = Termination.Reason.valueOf(record.getStop());
+        Genome bestSolution = new Genome(this.instance);
+        for (int i = 0; i < this.numItems; i++) {
+            bestSolution.set(i, parts[1].charAt(i) == '1');
+        }
+        this.best.set(new Incumbent(record.getResult(), bestSolution, 0));
+    }
+
+    // Solve the instance (implemented by each algorithm)
+    public abstract void solve();
+
+    // Load the state of an interrupted solve from the checkpoint file (if there is one for this instance)
+    // Must be called after the instance is loaded; the next call to solve continues the search from the checkpoint
+    public boolean resume() {
+        if (this.checkpointPath == null) {
+            return false;
+        }
+        try {
+            this.resumed = Checkpoint.load(this.checkpointPath, this);
+        } catch (IOException e) {
+            System.out.println("[Solver] Error reading checkpoint file " + this.checkpointPath + ": " + e.getMessage());
+            this.resumed = false;
+        }
+        return this.resumed;
+    }
+
+    // Save a checkpoint if checkpoints are enabled and the interval has passed since the last one
+    // Called at the start of a generation / iteration (where the search can be resumed)
+    protected void checkpoint() {
+        if (this.checkpointPath == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        if (now - this.lastCheckpoint < this.checkpointInterval) {
+            return;
+        }
+        try {
+            Checkpoint.save(this.checkpointPath, this);
+        } catch (IOException e) {
+            System.out.println("[Solver] Error writing checkpoint file " + this.checkpointPath + ": " + e.getMessage());
+        }
+        this.lastCheckpoint = now;
+    }
+
+    // Start the timer (or continue it after resuming)
+    // Returns true if the solve starts from scratch, false if it continues from a checkpoint
+    protected boolean startSolve() {
+        this.lastCheckpoint = System.currentTimeMillis();
+        this.stopReason = Termination.Reason.COMPLETED;
+        if (this.telemetry != null) {
+            this.sampleTime = System.nanoTime();
+            this.sampleEvaluations = this.evaluations;
+            this.sampleAllocated = Telemetry.allocatedBytes();
+        }
+        if (this.resumed) {
+            this.resumed = false;
+            return false;
+        }
+        this.time.set(System.currentTimeMillis());
+        this.lastBest = Double.NEGATIVE_INFINITY;
+        this.lastImprovement = 0;
+        return true;
+    }
+
+    // Check the termination policy before a generation / iteration
+    // Returns true (& sets the stop reason) if the solve should stop
+    protected boolean terminated() {
+        if (this.termination == null) {
+            return false;
+        }
+        double bestFitness = getBestFitness();
+        if (bestFitness > this.lastBest) {
+            this.lastBest = bestFitness;
+            this.lastImprovement = this.iterations;
+        }
+        this.stopReason = this.termination.check(this, this.iterations - this.lastImprovement, System.currentTimeMillis() - this.time.get());
+        return this.stopReason != Termination.Reason.COMPLETED;
+    }
+
+    // Record a telemetry sample of the generation / iteration just run (evaluations per second & bytes allocated are since the last sample)
+    // The allocations are the solving thread's (the parallel evaluations of big populations are not counted)
+    protected void sample() {
+        if (this.telemetry == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        long allocated = Telemetry.allocatedBytes();
+        double evaluationsPerSecond = now == this.sampleTime ? Double.NaN : (this.evaluations - this.sampleEvaluations) * 1e9 / (now - this.sampleTime);
+        this.telemetry.record(this.instanceName, getAlgorithm(), this.iterations, getBestFitness(), averageFitness(), diversity(),
+                evaluationsPerSecond, allocated < 0 ? -1 : allocated - this.sampleAllocated, entropy());
+        this.sampleTime = now;
+        this.sampleEvaluations = this.evaluations;
+        this.sampleAllocated = allocated;
+    }
+
+    // Average fitness of the solutions being searched (NaN = not measured)
+    protected double averageFitness() {
+        return Double.NaN;
+    }
+
+    // Entropy of the pheromone trails (NaN for the solvers without trails)
+    protected double entropy() {
+        return Double.NaN;
+    }
+
+    // Diversity of the solutions being searched, as the mean distance to the fittest one over the no. of items (NaN = not measured)
+    protected double diversity() {
+        return Double.NaN;
+    }
+
+    // Mean no. of items in which the solutions differ from the fittest of them, over the no. of items
+    // NaN if the solutions have not been evaluated yet (e.g., before the ants' first iteration)
+    protected double meanDistance(Iterable<Genome> solutions) {
+        Genome fittest = null;
+        for (Genome solution : solutions) {
+            if (fittest == null || solution.getFitness() > fittest.getFitness()) {
+                fittest = solution;
+            }
+        }
+        if (fittest == null || !fittest.isEvaluated()) {
+            return Double.NaN;
+        }
+        long total = 0;
+        int count = 0;
+        for (Genome solution : solutions) {
+            total += solution.distance(fittest);
+            count++;
+        }
+        return this.numItems == 0 ? 0.0 : (double) total / count / this.numItems;
+    }
+
+    // Stop the timer & remove the checkpoint (the solve has finished)
+    protected void finishSolve() {
+        this.time.set(System.currentTimeMillis() - this.time.get());
+        if (this.checkpointPath != null) {
+            Checkpoint.delete(this.checkpointPath);
+        }
+    }
+
+    // Write the state of the search to a checkpoint (subclasses add their own state)
+    protected void writeState(DataOutputStream out) throws IOException {
+        out.writeUTF(getAlgorithm());
+        out.writeUTF(this.instanceName);
+        out.writeInt(this.numItems);
+        out.writeLong(System.currentTimeMillis() - this.time.get()); // elapsed time (time holds the start time while solving)
+        out.writeLong(getTimeToBest());
+        out.writeLong(this.iterations);
+        out.writeLong(this.evaluations);
+        out.writeDouble(getBestFitness());
+        out.writeLong(this.lastImprovement);
+        Checkpoint.writeRandom(out, this.rng);
+    }
+
+    // Read the state of the search from a checkpoint
+    // Returns false if the checkpoint belongs to another algorithm / instance
+    protected boolean readState(DataInputStream in) throws IOException {
+        if (!in.readUTF().equals(getAlgorithm()) || !in.readUTF().equals(this.instanceName) || in.readInt() != this.numItems) {
+            return false;
+        }
+        this.time.set(System.currentTimeMillis() - in.readLong());
+        long timeToBest = in.readLong();
+        this.iterations = in.readLong();
+        this.evaluations = in.readLong();
+        this.best.set(new Incumbent(in.readDouble(), null, timeToBest)); // the solution is read by the subclass (setBestSolution)
+        this.lastBest = getBestFitness();
+        this.lastImprovement = in.readLong();
+        this.rng = Checkpoint.readRandom(in);
+        return true;
+    }
+
+    // Set the best solution read from a checkpoint (keeping the fitness & time read by readState)
+    // A copy is kept, since the solution read may be one of the population / ants' genomes
+    protected void setBestSolution(Genome solution) {
+        Incumbent current = this.best.get();
+        this.best.set(new Incumbent(current.getFitness(), solution == null ? null : new Genome(solution), current.getTimeToBest()));
+    }
+
+    // Write a solution that may be the same genome as one of the given solutions (written as its index instead)
+    protected static void writeSolution(DataOutputStream out, Genome solution, Iterable<Genome> solutions) throws IOException {
+        int index = 0;
+        for (Genome other : solutions) {
+            if (other == solution) {
+                out.writeInt(index);
+                return;
+            }
+            index++;
+        }
+        out.writeInt(-1);
+        out.writeBoolean(solution != null);
+        if (solution != null) {
+            Checkpoint.writeBits(out, solution);
+        }
+    }
+
+    // Read a solution written by writeSolution
+    protected Genome readSolution(DataInputStream in, ArrayList<Genome> solutions) throws IOException {
+        int index = in.readInt();
+        if (index >= 0) {
+            return solutions.get(index);
+        }
+        return in.readBoolean() ? Checkpoint.readBits(in, this.instance) : null;
+    }
+
     // Helpers
     public void clear() {
         this.instanceName = null;
         this.capacity = 0;
         this.numItems = 0;
         this.optimalFitness = 0.0;
-        this.bestFitness = 0.0;
-        this.bestSolution = null;
-        this.items.clear();
+        this.best.set(new Incumbent(0.0, null, 0));
+        this.instance = Instance.empty();
+        this.reduction = null;
+        this.stopReason = Termination.Reason.COMPLETED;
         this.time.set(0);
+        this.iterations = 0;
+        this.evaluations = 0;
+        this.resumed = false;
+        setSeed(System.nanoTime());
     }
 
-    protected Double calculateFitness(Boolean[] solution) {
-        //Calculate the fitness of the solution
-        Double fitness = 0.0;
-        Double weight = 0.0;
-        for (int i = 0; i < solution.length; i++) {
-            if (solution[i]) {
-                fitness += items.get(i).getValue();
-                weight += items.get(i).getWeight();
-            }
+    // Fitness of a solution: its total value, or 0 if it is over the capacity (rounded off to 4 decimal places)
+    // Fixed point instances are evaluated exactly with longs (converted to a double once, so no rounding is needed)
+    // Pure (no side effects), so solutions can be evaluated on any thread
+    protected double evaluate(Genome solution) {
+        if (this.instance.scale > 0) {
+            long value = solution.getScaledWeight() > this.instance.scaledCapacity ? 0 : solution.getScaledValue() + this.instance.scaledOffset;
+            return this.instance.scale == 1 ? value : (double) value / this.instance.scale;
         }
-        //Check if the solution is valid
-        if (weight > capacity) {
-            fitness = 0.0;
+        //Check if the solution is valid (the genome keeps its total value & weight up to date, so this is O(1))
+        double fitness = solution.getWeight() > this.capacity ? 0.0 : solution.getValue() + this.instance.offset;
+        //round off fitness to 4 decimal places
+        return Math.round(fitness * 10000.0) / 10000.0;
+    }
+
+    // Replace the best solution if the fitness is better (or the best is still 0)
+    // A copy of the solution is kept, since the solvers reuse their genomes (the copy is only made once the solution is better)
+    // Thread safe: retries the compare-and-set if another thread replaced the best in the meantime
+    protected boolean updateBest(Genome solution, double fitness) {
+        Genome copy = null;
+        while (true) {
+            Incumbent current = this.best.get();
+            if (!(fitness > current.getFitness() || current.getFitness() == 0.0)) {
+                return false;
+            }
+            long timeToBest = current.getTimeToBest();
+            if (fitness > current.getFitness()) {
+                timeToBest = System.currentTimeMillis() - this.time.get(); // time holds the start time while solving
+            }
+            if (copy == null) {
+                copy = new Genome(solution);
+            }
+            if (this.best.compareAndSet(current, new Incumbent(fitness, copy, timeToBest))) {
+                return true;
+            }
         }
+    }
 
-        //round off fitness to 4 decimal places
-        fitness = Math.round(fitness * 10000.0) / 10000.0;
-        //Check if the solution is the best
-        if (fitness > bestFitness || bestFitness == 0.0) {
-            this.bestFitness = fitness;
-            this.bestSolution = solution;
+    protected Double calculateFitness(Genome solution) {
+        //A genome that has not changed since it was evaluated keeps its fitness (and was already compared to the best)
+        if (solution.isEvaluated()) {
+            return solution.getFitness();
         }
+        this.evaluations++;
+        double fitness = evaluate(solution);
+        solution.setFitness(fitness);
+        //Check if the solution is the best
+        updateBest(solution, fitness);
         return fitness;
     }
 
-    protected Boolean[] createRandomIndividual() {
-        // Create a new random individual
-        Boolean[] individual = new Boolean[this.numItems];
-        for (int i = 0; i < this.numItems; i++) {
-            individual[i] = Math.random() < 0.5;
+    // Evaluate all the solutions that have changed (in parallel when there are at least parallelThreshold of them)
+    // The fitnesses are calculated in parallel, then stored & compared to the best in order, so the result is the same as evaluating them one at a time
+    protected void evaluateAll(ArrayList<Genome> solutions) {
+        if (solutions.size() < this.parallelThreshold) {
+            for (Genome solution : solutions) {
+                calculateFitness(solution);
+            }
+            return;
+        }
+        double[] fitnesses = new double[solutions.size()];
+        IntStream.range(0, solutions.size()).parallel().forEach(i -> {
+            Genome solution = solutions.get(i);
+            fitnesses[i] = solution.isEvaluated() ? solution.getFitness() : evaluate(solution);
+        });
+        for (int i = 0; i < fitnesses.length; i++) {
+            Genome solution = solutions.get(i);
+            if (!solution.isEvaluated()) {
+                this.evaluations++;
+                solution.setFitness(fitnesses[i]);
+                updateBest(solution, fitnesses[i]);
+            }
+        }
+    }
+
+    // Greedy repair: drop the worst ratio items until the solution fits, then add the best ratio items that still fit
+    // Uses the genome's cached weight, so a solution that fits costs only the search for items light enough to add
+    protected void repair(Genome solution) {
+        int[] order = this.instance.order;
+        double[] weights = this.instance.weights;
+        for (int k = this.numItems - 1; k >= 0 && solution.getWeight() > this.capacity; k--) {
+            if (solution.get(order[k])) {
+                solution.set(order[k], false);
+            }
+        }
+        // Only the items no heavier than the capacity left can be added: the last items of byWeight
+        // If there are few of them, the best ratio one that fits is added until none fits (the same items as the scan in ratio order)
+        int[] byWeight = this.instance.byWeight;
+        int light = lightItems(this.capacity - solution.getWeight());
+        if (this.numItems - light <= repairScan) {
+            while (true) {
+                double residual = this.capacity - solution.getWeight();
+                int best = -1;
+                for (int k = light; k < this.numItems; k++) {
+                    int i = byWeight[k];
+                    if (!solution.get(i) && weights[i] <= residual && (best < 0 || this.instance.ratios[i] > this.instance.ratios[best]
+                            || (this.instance.ratios[i] == this.instance.ratios[best] && i < best))) {
+                        best = i;
+                    }
+                }
+                if (best < 0) {
+                    return;
+                }
+                solution.set(best, true);
+            }
+        }
+        for (int k = 0; k < this.numItems && this.capacity - solution.getWeight() >= this.instance.lightest[k]; k++) {
+            int i = order[k];
+            if (!solution.get(i) && solution.getWeight() + weights[i] <= this.capacity) {
+                solution.set(i, true);
+            }
         }
-        return individual;
+    }
+
+    // Position in byWeight of the first item no heavier than the given weight (binary search, byWeight is by decreasing weight)
+    private int lightItems(double weight) {
+        int[] byWeight = this.instance.byWeight;
+        int lo = 0;
+        int hi = this.numItems;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (this.instance.weights[byWeight[mid]] <= weight) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    protected Genome createIndividual() {
+        // Create a new individual (random, greedy or randomized greedy, depending on the initializer)
+        return this.initializer.create(this.instance, this.rng);
     }
 
     // Write results for the instance to file and console
     public void writeResults(String path) {
+        RunRecord record = getRecord();
         String res = "";
-        String summary = "";
         String print = "";
         res += "Instance: " + this.instanceName;
-        summary += "\n" + this.instanceName + ":";
         print += "\n\u001b[34m" + this.instanceName + "\u001b[0m:";
 
-        res += "\nBest Fitness: " + this.bestFitness + " / Optimal: " + this.optimalFitness;
-        summary += this.bestFitness + ":" + this.optimalFitness + ":";
-        print += this.bestFitness + ":" + this.optimalFitness + ":";
+        Genome bestSolution = getOriginalSolution();
+        Instance items = this.reduction == null ? this.instance : this.reduction.getOriginal();
+        res += "\nBest Fitness: " + getBestFitness() + " / Optimal: " + this.optimalFitness;
+        print += getBestFitness() + ":" + this.optimalFitness + ":";
 
-        if(this.bestFitness.compareTo(this.optimalFitness) == 0){
+        if(record.isOptimal()){
             res += " (Optimal)";
-            summary += "Optimal";
             print += "\u001b[32mOptimal\u001b[0m";
         } else {
             res += " (Not Optimal)";
-            summary += "Not Optimal";
             print += "\u001b[31mNot Optimal\u001b[0m";
         }
 
-        res += "\nBest Solution: " + Arrays.toString(this.bestSolution);
+        if (this.reduction != null) {
+            res += "\nReduction: " + this.reduction;
+        }
+        res += "\nBest Solution: " + bestSolution;
         res += "\n[";
-        for(int i = 0; i < this.numItems; i++){
-            if(this.bestSolution[i]){
-                res += "\n\t( " + this.items.get(i).getValue() + ", " + this.items.get(i).getWeight() + " )";
+        for(int i = 0; i < items.numItems; i++){
+            if(bestSolution.get(i)){
+                res += "\n\t( " + items.values[i] + ", " + items.weights[i] + " )";
             }
         }
         res += "\n]";
 
+        if (this.stopReason != Termination.Reason.COMPLETED) {
+            res += "\nStopped: " + this.stopReason + " after " + this.iterations + " generations / iterations";
+        }
         res += "\nTime: " + this.time + "ms";
-        summary += ":" + this.time + "ms";
         print += ":" + this.time + "ms";
 
 
-        // Add the summary to the arraylist
-        this.summaries.add(summary);
+        // Add the record to the arraylist
+        this.records.add(record);
         // Print to console
         System.out.println(print + " \n\tFull version available in file: " + path);
 
@@ -188,6 +637,23 @@ public class Solver {
         }
     }
     
+    // Append the structured record of the last solve to a results file (CSV, header written when the file is new)
+    public void writeRecord(String path) {
+        try {
+            File file = new File(path);
+            boolean isNew = !file.exists() || file.length() == 0;
+            FileWriter writer = new FileWriter(file, true);
+            if (isNew) {
+                writer.write(RunRecord.HEADER + "\n");
+            }
+            writer.write(getRecord().toCSV() + "\n");
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("[Solver] Error writing to results file " + path + ": ");
+            e.printStackTrace();
+        }
+    }
+
     // Write the summaries for the algorithm to file
     public void summarize(String path, String algorithm){
         String res = "";
@@ -198,21 +664,20 @@ public class Solver {
         res += "\nInstance : Best Fitness : Optimal Fitness : Optimal? : Time";
         res += "\n--------------------------------------------------------------";
 
-        for(String summary : this.summaries){
-            res += summary;
-            String[] splitSummary = summary.split(":");
-            if(splitSummary[3].compareTo("Optimal") == 0){
+        for(RunRecord record : this.records){
+            res += "\n" + record.getInstance() + ":" + record.getResult() + ":" + record.getOptimal() + ":" + (record.isOptimal() ? "Optimal" : "Not Optimal") + ":" + record.getTime() + "ms";
+            if(record.isOptimal()){
                 totalOptimal++;
             }
-            totalTime += Long.parseLong(splitSummary[4].replace("ms", ""));
+            totalTime += record.getTime();
         }
 
         res += "\n--------------------------------------------------------------";
-        res += "\nTotal Instances: " + this.summaries.size();
-        res += "\nTotal Optimal: " + totalOptimal + " / " + this.summaries.size();
-        res += "\n% Optimal: " + ((double) totalOptimal / this.summaries.size()) * 100 + "%";
+        res += "\nTotal Instances: " + this.records.size();
+        res += "\nTotal Optimal: " + totalOptimal + " / " + this.records.size();
+        res += "\n% Optimal: " + ((double) totalOptimal / this.records.size()) * 100 + "%";
         res += "\nTotal Time: " + totalTime + "ms";
-        res += "\nAverage Time: " + totalTime / this.summaries.size() + "ms";
+        res += "\nAverage Time: " + totalTime / this.records.size() + "ms";
 
         // Write to file
         try {
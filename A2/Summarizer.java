@@ -0,0 +1,108 @@
+// Tayla Orsmond u21467456
+// Summarizer class streams the structured results file (one RunRecord per line) and summarizes it in a single pass
+// Gives the totals per dataset & algorithm as well as the p50 / p95 / p99 solve times
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+
+public class Summarizer {
+    private LinkedHashMap<String, Stats> stats; // running totals per "dataset / algorithm"
+    private ArrayList<String> summaries;
+
+    // Constructor
+    public Summarizer() {
+        this.stats = new LinkedHashMap<>();
+        this.summaries = new ArrayList<>();
+    }
+
+    // Running totals for one algorithm on one dataset
+    // Times are kept in a growable primitive array so the percentiles can be calculated at the end of the pass
+    private static class Stats {
+        private int count = 0;
+        private int optimal = 0;
+        private long totalTime = 0;
+        private long evaluations = 0;
+        private double gap = 0.0; // sum of (optimal - result) / optimal
+        private long[] times = new long[16];
+
+        private void add(RunRecord record) {
+            if (record.isOptimal()) {
+                optimal++;
+            }
+            if (record.getOptimal() > 0) {
+                gap += (record.getOptimal() - record.getResult()) / record.getOptimal();
+            }
+            totalTime += record.getTime();
+            evaluations += record.getEvaluations();
+            if (count == times.length) {
+                times = Arrays.copyOf(times, count * 2);
+            }
+            times[count++] = record.getTime();
+        }
+
+        // Nearest-rank percentile of the solve times (times must be sorted first)
+        private long percentile(double p) {
+            int rank = (int) Math.ceil(p / 100.0 * count);
+            return times[Math.max(rank, 1) - 1];
+        }
+    }
+
+    // Stream the records in the results file (without loading the file into memory)
+    public void summarize(String path) {
+        try {
+            BufferedReader reader = new BufferedReader(new FileReader(path));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Skip the header(s) and blank lines
+                if (line.isEmpty() || line.startsWith(RunRecord.HEADER)) {
+                    continue;
+                }
+                RunRecord record = RunRecord.fromCSV(line);
+                this.stats.computeIfAbsent(record.getDataset() + " / " + record.getAlgorithm(), k -> new Stats()).add(record);
+            }
+            reader.close();
+        } catch (IOException e) {
+            System.out.println("[Summarizer] Error reading results file " + path + ": ");
+            e.printStackTrace();
+        }
+
+        this.summaries.clear();
+        for (String key : this.stats.keySet()) {
+            Stats s = this.stats.get(key);
+            Arrays.sort(s.times, 0, s.count);
+            this.summaries.add(key + " [Optimal: " + s.optimal + " / " + s.count
+                    + " AvgGap: " + Math.round(s.gap / s.count * 1000000.0) / 10000.0 + "%"
+                    + " TotalTime: " + s.totalTime + "ms AvgTime: " + s.totalTime / s.count + "ms"
+                    + " P50: " + s.percentile(50) + "ms P95: " + s.percentile(95) + "ms P99: " + s.percentile(99) + "ms"
+                    + " Evaluations: " + s.evaluations + "]");
+        }
+    }
+
+    // Write the report to file and console
+    public void writeSummary(String path) {
+        String res = "Summary of the results per dataset / algorithm:";
+        for (String summary : this.summaries) {
+            res += "\n" + summary;
+        }
+        System.out.println(res);
+
+        try {
+            File file = new File(path);
+            if (!file.exists()) {
+                file.createNewFile();
+            }
+            FileWriter writer = new FileWriter(file);
+            writer.write(res);
+            writer.close();
+        } catch (IOException e) {
+            System.out.println("[Summarizer] Error writing to file " + path + ": ");
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,192 @@
+// Tayla Orsmond u21467456
+// Telemetry class records a sample of the search after every generation (GA) / iteration (ACO, MMAS) and writes them to a CSV or JSONL file
+// The solver puts each sample in a ring buffer (preallocated columns, so recording allocates nothing & never waits for the disk)
+// and a background thread drains the buffer to the file. If the buffer is full the sample is dropped (and counted) instead of blocking
+// Only one solver may record at a time (single producer): Main runs the algorithms one after the other
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class Telemetry {
+    // Variables ====================
+    public static final String HEADER = "instance,algorithm,iteration,best,average,diversity,evaluationsPerSecond,allocatedBytes,entropy";
+
+    private final String path; // The path to the telemetry file (.jsonl = one JSON object per line, otherwise CSV)
+    private final boolean json;
+    private final int mask; // The capacity of the ring buffer - 1 (the capacity is a power of 2)
+
+    // The ring buffer (one array per column, slot = sequence no. & mask)
+    private final String[] instances;
+    private final String[] algorithms;
+    private final long[] iterations;
+    private final double[] bests;
+    private final double[] averages;
+    private final double[] diversities;
+    private final double[] evaluationsPerSecond;
+    private final long[] allocatedBytes;
+    private final double[] entropies;
+
+    private final AtomicLong head; // The sequence no. of the next sample recorded (only advanced by the solver)
+    private final AtomicLong tail; // The sequence no. of the next sample written (only advanced by the writer thread)
+    private final AtomicLong dropped; // The no. of samples dropped because the buffer was full
+    private volatile boolean closed;
+    private final Thread writer;
+
+    // Constructor ====================
+    /**
+     * Open a telemetry file and start the thread that writes to it
+     * @param path The path to the telemetry file
+     * @param capacity The minimum no. of samples the ring buffer holds (rounded up to a power of 2)
+     * @throws IOException If the file cannot be opened
+     */
+    public Telemetry(String path, int capacity) throws IOException {
+        this.path = path;
+        this.json = path.endsWith(".jsonl");
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.instances = new String[size];
+        this.algorithms = new String[size];
+        this.iterations = new long[size];
+        this.bests = new double[size];
+        this.averages = new double[size];
+        this.diversities = new double[size];
+        this.evaluationsPerSecond = new double[size];
+        this.allocatedBytes = new long[size];
+        this.entropies = new double[size];
+        this.head = new AtomicLong();
+        this.tail = new AtomicLong();
+        this.dropped = new AtomicLong();
+
+        BufferedWriter out = new BufferedWriter(new FileWriter(path));
+        if (!this.json) {
+            out.write(HEADER + "\n");
+        }
+        this.writer = new Thread(() -> drain(out), "Telemetry");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // Getters ====================
+    public String getPath() {
+        return this.path;
+    }
+
+    public long getDropped() {
+        return this.dropped.get();
+    }
+
+    // Helpers ====================
+    /**
+     * Record a sample (never blocks: the sample is dropped if the buffer is full)
+     * @return True if the sample was recorded
+     */
+    public boolean record(String instance, String algorithm, long iteration, double best, double average, double diversity,
+            double evaluationsPerSecond, long allocatedBytes, double entropy) {
+        long next = this.head.get();
+        if (next - this.tail.get() > this.mask) {
+            this.dropped.incrementAndGet();
+            return false;
+        }
+        int slot = (int) (next & this.mask);
+        this.instances[slot] = instance;
+        this.algorithms[slot] = algorithm;
+        this.iterations[slot] = iteration;
+        this.bests[slot] = best;
+        this.averages[slot] = average;
+        this.diversities[slot] = diversity;
+        this.evaluationsPerSecond[slot] = evaluationsPerSecond;
+        this.allocatedBytes[slot] = allocatedBytes;
+        this.entropies[slot] = entropy;
+        this.head.lazySet(next + 1); // publishes the slot to the writer thread (ordered after the writes above)
+        return true;
+    }
+
+    /**
+     * Write the samples left in the buffer and close the file
+     * @return void
+     */
+    public void close() {
+        this.closed = true;
+        LockSupport.unpark(this.writer);
+        try {
+            this.writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Writer thread: write the samples as they are recorded (checking every ms when the buffer is empty) until closed
+    private void drain(BufferedWriter out) {
+        try {
+            while (true) {
+                boolean done = this.closed; // read before the head, so every sample recorded before close is written
+                long end = this.head.get();
+                long next = this.tail.get();
+                if (next == end) {
+                    if (done) {
+                        break;
+                    }
+                    out.flush();
+                    LockSupport.parkNanos(1000000);
+                    continue;
+                }
+                for (; next < end; next++) {
+                    out.write(format((int) (next & this.mask)));
+                    this.tail.lazySet(next + 1);
+                }
+            }
+            out.close();
+        } catch (IOException e) {
+            System.out.println("[Telemetry] Error writing telemetry file " + this.path + ": " + e.getMessage());
+        }
+    }
+
+    // One line of the file for the sample in the given slot
+    private String format(int slot) {
+        if (this.json) {
+            return "{\"instance\":\"" + this.instances[slot] + "\",\"algorithm\":\"" + this.algorithms[slot] + "\",\"iteration\":" + this.iterations[slot]
+                    + ",\"best\":" + number(this.bests[slot]) + ",\"average\":" + number(this.averages[slot]) + ",\"diversity\":" + number(this.diversities[slot])
+                    + ",\"evaluationsPerSecond\":" + number(this.evaluationsPerSecond[slot]) + ",\"allocatedBytes\":" + this.allocatedBytes[slot]
+                    + ",\"entropy\":" + number(this.entropies[slot]) + "}\n";
+        }
+        return this.instances[slot] + "," + this.algorithms[slot] + "," + this.iterations[slot] + "," + this.bests[slot] + "," + this.averages[slot] + ","
+                + this.diversities[slot] + "," + this.evaluationsPerSecond[slot] + "," + this.allocatedBytes[slot] + "," + this.entropies[slot] + "\n";
+    }
+
+    // JSON has no NaN (a value that is not measured is null)
+    private static String number(double value) {
+        return Double.isNaN(value) || Double.isInfinite(value) ? "null" : Double.toString(value);
+    }
+
+    /**
+     * Bytes allocated by the current thread so far (-1 if the JVM cannot measure it)
+     * @return The no. of bytes
+     */
+    public static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    /**
+     * Shannon entropy of a distribution given by weights (e.g., pheromone trails), normalised to [0, 1]
+     * @details 1 = the weights are all equal, 0 = one weight holds everything; computed from the sums in one pass over the weights
+     * @param total The sum of the weights
+     * @param weightedLogs The sum of weight x ln(weight)
+     * @param count The no. of weights
+     * @return The entropy over ln(count)
+     */
+    public static double entropy(double total, double weightedLogs, int count) {
+        if (count < 2 || total <= 0) {
+            return 0.0;
+        }
+        return (Math.log(total) - weightedLogs / total) / Math.log(count);
+    }
+}
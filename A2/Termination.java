@@ -0,0 +1,49 @@
+// Tayla Orsmond u21467456
+// Termination class decides when a GA / ACO / MMAS solve stops before its last generation / iteration
+// OPTIMUM: the best fitness has reached the known optimum (from Optima.txt)
+// STAGNATION: the best fitness has not improved for the given no. of generations / iterations
+// TIME_LIMIT: the solve has run for the given no. of ms (time spent before a checkpoint counts)
+// DIVERSITY: the solutions have converged (the mean distance to the fittest solution is below the given share of the items)
+// COMPLETED: none of these, the solve ran all its generations / iterations (also the reason when there is no termination policy)
+
+public class Termination {
+    public enum Reason {
+        COMPLETED, OPTIMUM, STAGNATION, TIME_LIMIT, DIVERSITY
+    }
+
+    private final boolean stopAtOptimum;
+    private final int stagnation; // no. of generations / iterations without improvement (0 = off)
+    private final long timeLimit; // ms (0 = off)
+    private final double minDiversity; // share of the items (0 = off)
+
+    // Constructors
+    public Termination(boolean stopAtOptimum, int stagnation, long timeLimit, double minDiversity) {
+        this.stopAtOptimum = stopAtOptimum;
+        this.stagnation = stagnation;
+        this.timeLimit = timeLimit;
+        this.minDiversity = minDiversity;
+    }
+
+    public String toString() {
+        return "stopAtOptimum=" + this.stopAtOptimum + ",stagnation=" + this.stagnation + ",timeLimit=" + this.timeLimit + ",minDiversity=" + this.minDiversity;
+    }
+
+    // Reason to stop the solver now (COMPLETED = keep going)
+    // The diversity is only measured if it is checked, since it costs O(population x n / 64)
+    public Reason check(Solver solver, long sinceImprovement, long elapsed) {
+        Double optimal = solver.getOptimalFitness();
+        if (this.stopAtOptimum && optimal != null && optimal > 0 && solver.getBestFitness() >= optimal) {
+            return Reason.OPTIMUM;
+        }
+        if (this.stagnation > 0 && sinceImprovement >= this.stagnation) {
+            return Reason.STAGNATION;
+        }
+        if (this.timeLimit > 0 && elapsed >= this.timeLimit) {
+            return Reason.TIME_LIMIT;
+        }
+        if (this.minDiversity > 0 && solver.diversity() < this.minDiversity) {
+            return Reason.DIVERSITY;
+        }
+        return Reason.COMPLETED;
+    }
+}